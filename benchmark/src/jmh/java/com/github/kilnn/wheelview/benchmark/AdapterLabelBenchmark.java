@@ -0,0 +1,93 @@
+package com.github.kilnn.wheelview.benchmark;
+
+import com.github.kilnn.wheellayout.WheelIntAdapter;
+import com.github.kilnn.wheellayout.WheelIntFormatter;
+import com.github.kilnn.wheelview.adapters.ArrayWheelLabels;
+import com.github.kilnn.wheelview.adapters.NumericWheelLabels;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-bind cost of the item labels of the adapters, on a wheel of 10k items.
+ * <p>{@code span} is how many distinct items are asked for in turn: 7 is a wheel at rest being redrawn,
+ * so labels come from the label cache; 10000 is a fling through every item, so the cache always misses
+ * and each bind formats its label.
+ * <p>NumericWheelAdapter and ArrayWheelAdapter take a Context, which can't be created outside Android
+ * or Robolectric. Their getItemText returns the label of NumericWheelLabels and ArrayWheelLabels,
+ * which are measured instead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AdapterLabelBenchmark {
+
+    private static final int ITEM_COUNT = 10000;
+
+    @Param({"7", "10000"})
+    public int span;
+
+    private WheelIntAdapter intAdapter;
+    private WheelIntAdapter formatIntAdapter;
+    private NumericWheelLabels numericLabels;
+    private NumericWheelLabels formatNumericLabels;
+    private ArrayWheelLabels<Integer> arrayLabels;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        intAdapter = new WheelIntAdapter(0, ITEM_COUNT - 1, null, null);
+        formatIntAdapter = new WheelIntAdapter(0, ITEM_COUNT - 1, new WheelIntFormatter() {
+            @Override
+            public String format(int index, int value) {
+                return String.format(Locale.US, "%05d", value);
+            }
+        }, null);
+        numericLabels = new NumericWheelLabels(0, ITEM_COUNT - 1, null);
+        formatNumericLabels = new NumericWheelLabels(0, ITEM_COUNT - 1, "%05d");
+        Integer[] items = new Integer[ITEM_COUNT];
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items[i] = i;
+        }
+        arrayLabels = new ArrayWheelLabels<>(items);
+    }
+
+    private int nextIndex() {
+        index = index + 1 < span ? index + 1 : 0;
+        return index;
+    }
+
+    @Benchmark
+    public CharSequence wheelIntAdapter() {
+        return intAdapter.getItemLabel(nextIndex());
+    }
+
+    @Benchmark
+    public CharSequence wheelIntAdapterWithFormatter() {
+        return formatIntAdapter.getItemLabel(nextIndex());
+    }
+
+    @Benchmark
+    public CharSequence numericWheelAdapter() {
+        return numericLabels.getLabel(nextIndex());
+    }
+
+    @Benchmark
+    public CharSequence numericWheelAdapterWithFormat() {
+        return formatNumericLabels.getLabel(nextIndex());
+    }
+
+    @Benchmark
+    public CharSequence arrayWheelAdapter() {
+        return arrayLabels.getLabel(nextIndex());
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.kilnn.wheelview.benchmark;
+
+import com.github.kilnn.wheellayout.DateAdapterKeys;
+import com.github.kilnn.wheellayout.WheelIntAdapterKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the month and day adapter keys DateWheelLayout computes when the year or month wheel stops,
+ * over every month of the default range from 1900-01-01.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateAdapterKeysBenchmark {
+
+    private static final int START_YEAR = 1900;
+    private static final int END_YEAR = 2022;
+
+    private DateAdapterKeys keys;
+    private int year = START_YEAR;
+    private int month = 1;
+
+    @Setup
+    public void setUp() {
+        keys = new DateAdapterKeys(START_YEAR, 1, 1, END_YEAR, 6, 15);
+    }
+
+    private void nextMonth() {
+        if (++month > 12) {
+            month = 1;
+            year = year < END_YEAR ? year + 1 : START_YEAR;
+        }
+    }
+
+    @Benchmark
+    public WheelIntAdapterKey monthAdapterKey() {
+        nextMonth();
+        return keys.getMonthAdapterKey(year);
+    }
+
+    @Benchmark
+    public WheelIntAdapterKey dayAdapterKey() {
+        nextMonth();
+        return keys.getDayAdapterKey(year, month);
+    }
+}
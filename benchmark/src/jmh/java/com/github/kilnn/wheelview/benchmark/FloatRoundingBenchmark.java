@@ -0,0 +1,55 @@
+package com.github.kilnn.wheelview.benchmark;
+
+import com.github.kilnn.wheellayout.WheelFloatParts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the BigDecimal rounding setFloatConfig and setFloatValue do before splitting a value into its wheels.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FloatRoundingBenchmark {
+
+    private static final int VALUE_COUNT = 1024;
+
+    private final float[] values = new float[VALUE_COUNT];
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            values[i] = random.nextFloat() * 1000;
+        }
+    }
+
+    private float nextValue() {
+        index = (index + 1) & (VALUE_COUNT - 1);
+        return values[index];
+    }
+
+    @Benchmark
+    public float roundHalfUp() {
+        return WheelFloatParts.roundHalfUp(nextValue());
+    }
+
+    /**
+     * Rounds and splits one value, as setFloatValue does
+     */
+    @Benchmark
+    public int splitValue() {
+        float value = WheelFloatParts.roundHalfUp(nextValue());
+        return WheelFloatParts.intPart(value) * 10 + WheelFloatParts.floatPart(value);
+    }
+}
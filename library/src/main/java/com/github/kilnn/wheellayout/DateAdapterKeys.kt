@@ -0,0 +1,55 @@
+package com.github.kilnn.wheellayout
+
+import androidx.annotation.RestrictTo
+
+/**
+ * 根据可选择的开始和结束日期，计算[DateWheelLayout]中月和日滑轮的[WheelIntAdapterKey]。
+ * 与平台无关，benchmark模块直接测试它的耗时
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+class DateAdapterKeys(
+    val startYear: Int,
+    val limitMonthAtStart: Int,//如为7，则开始年份中，月的选择为7-12月
+    val limitDayAtStart: Int,//如为7，则开始年月中，日的选择为7-31号
+    val endYear: Int,
+    val limitMonthAtEnd: Int,//如为7，则结束年份中，月的选择为1-7月
+    val limitDayAtEnd: Int,//如为7，则结束年月中，月的选择为1-7号
+) {
+
+    fun getMonthAdapterKey(year: Int): WheelIntAdapterKey {
+        return when {
+            year == startYear -> WheelIntAdapterKey(limitMonthAtStart, 12, limitMonthAtStart == 1)
+            year < endYear -> WheelIntAdapterKey(1, 12, true)
+            else -> WheelIntAdapterKey(1, limitMonthAtEnd, limitMonthAtEnd == 12)
+        }
+    }
+
+    fun getDayAdapterKey(year: Int, month: Int): WheelIntAdapterKey {
+        val dayCount = getDayCount(year, month)
+        return if (year == startYear && month == limitMonthAtStart) {
+            WheelIntAdapterKey(limitDayAtStart, dayCount, limitDayAtStart == 1)
+        } else if (year == endYear && month == limitMonthAtEnd) {
+            WheelIntAdapterKey(1, limitDayAtEnd, limitDayAtEnd == dayCount)
+        } else {
+            WheelIntAdapterKey(1, dayCount, true)
+        }
+    }
+
+    fun getDayCount(year: Int, month: Int): Int {
+        return when (month) {
+            1, 3, 5, 7, 8, 10, 12 -> 31
+            4, 6, 9, 11 -> 30
+            2 -> {
+                if (year % 4 == 0 && year % 100 != 0 || year % 400 == 0) {
+                    29
+                } else {
+                    28
+                }
+            }
+
+            else -> {
+                throw IllegalArgumentException()
+            }
+        }
+    }
+}
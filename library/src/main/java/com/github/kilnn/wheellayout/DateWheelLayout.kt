@@ -6,6 +6,7 @@ import android.widget.LinearLayout
 import com.github.kilnn.wheelview.OnWheelScrollListener
 import com.github.kilnn.wheelview.WheelView
 import java.util.*
+import java.util.concurrent.Executor
 
 class DateWheelLayout @JvmOverloads constructor(
     context: Context,
@@ -20,34 +21,34 @@ class DateWheelLayout @JvmOverloads constructor(
     private val wheelLayoutMonth: OneWheelLayout
     private val wheelLayoutDay: OneWheelLayout
 
+    /**
+     * 年月日三个滑轮的Item相同，共用一个缓存池
+     */
+    private val recycledViewPool = sharedRecycledViewPool(3)
+
     init {
         orientation = HORIZONTAL
         if (order) {
-            wheelLayoutYear = addOneWheelLayout().apply {
+            wheelLayoutYear = addOneWheelLayout(recycledViewPool).apply {
                 addScrollingListener(this@DateWheelLayout)
             }
-            wheelLayoutMonth = addOneWheelLayout().apply {
+            wheelLayoutMonth = addOneWheelLayout(recycledViewPool).apply {
                 addScrollingListener(this@DateWheelLayout)
             }
-            wheelLayoutDay = addOneWheelLayout()
+            wheelLayoutDay = addOneWheelLayout(recycledViewPool)
         } else {
-            wheelLayoutDay = addOneWheelLayout()
+            wheelLayoutDay = addOneWheelLayout(recycledViewPool)
 
-            wheelLayoutMonth = addOneWheelLayout().apply {
+            wheelLayoutMonth = addOneWheelLayout(recycledViewPool).apply {
                 addScrollingListener(this@DateWheelLayout)
             }
-            wheelLayoutYear = addOneWheelLayout().apply {
+            wheelLayoutYear = addOneWheelLayout(recycledViewPool).apply {
                 addScrollingListener(this@DateWheelLayout)
             }
         }
     }
 
-    private var startYear = 0
-    private var endYear = 0
-    private var limitMonthAtStart = 0
-    private var limitMonthAtEnd = 0
-    private var limitDayAtStart = 0
-    private var limitDayAtEnd = 0
+    private var adapterKeys = DateAdapterKeys(0, 0, 0, 0, 0, 0)
 
     /**
      * @param start 可供选择的最小日期，如果不设置，默认为1900年1月1日
@@ -70,24 +71,22 @@ class DateWheelLayout @JvmOverloads constructor(
         check(startDate <= endDate) { "error:startDate after endData" }
 
         val startArrays = startDate.toIntArray(calendar)
-        startYear = startArrays[0]
-        limitMonthAtStart = startArrays[1]//如为7，则开始年份中，月的选择为7-12月
-        limitDayAtStart = startArrays[2]//如为7，则开始年月中，日的选择为7-31号
-
         val endArrays = endDate.toIntArray(calendar)
-        endYear = endArrays[0]
-        limitMonthAtEnd = endArrays[1]//如为7，则结束年份中，月的选择为1-7月
-        limitDayAtEnd = endArrays[2]//如为7，则结束年月中，月的选择为1-7号
+        val keys = DateAdapterKeys(
+            startArrays[0], startArrays[1], startArrays[2],
+            endArrays[0], endArrays[1], endArrays[2]
+        )
+        adapterKeys = keys
 
-        wheelLayoutYear.setConfig(WheelIntConfig(startYear, endYear, false, yearDes, formatter))
+        wheelLayoutYear.setConfig(WheelIntConfig(keys.startYear, keys.endYear, false, yearDes, formatter))
         wheelLayoutMonth.setConfig(
-            getMonthAdapterKey(startYear).toWheelIntConfig(
+            getMonthAdapterKey(keys.startYear).toWheelIntConfig(
                 monthDes,
                 formatter
             )
         )
         wheelLayoutDay.setConfig(
-            getDayAdapterKey(startYear, limitMonthAtStart).toWheelIntConfig(
+            getDayAdapterKey(keys.startYear, keys.limitMonthAtStart).toWheelIntConfig(
                 dayDes,
                 formatter
             )
@@ -95,40 +94,11 @@ class DateWheelLayout @JvmOverloads constructor(
     }
 
     private fun getMonthAdapterKey(year: Int): WheelIntAdapterKey {
-        return when {
-            year == startYear -> WheelIntAdapterKey(limitMonthAtStart, 12, limitMonthAtStart == 1)
-            year < endYear -> WheelIntAdapterKey(1, 12, true)
-            else -> WheelIntAdapterKey(1, limitMonthAtEnd, limitMonthAtEnd == 12)
-        }
+        return adapterKeys.getMonthAdapterKey(year)
     }
 
     private fun getDayAdapterKey(year: Int, month: Int): WheelIntAdapterKey {
-        val dayCount = getDayCount(year, month)
-        return if (year == startYear && month == limitMonthAtStart) {
-            WheelIntAdapterKey(limitDayAtStart, dayCount, limitDayAtStart == 1)
-        } else if (year == endYear && month == limitMonthAtEnd) {
-            WheelIntAdapterKey(1, limitDayAtEnd, limitDayAtEnd == dayCount)
-        } else {
-            WheelIntAdapterKey(1, dayCount, true)
-        }
-    }
-
-    private fun getDayCount(year: Int, month: Int): Int {
-        return when (month) {
-            1, 3, 5, 7, 8, 10, 12 -> 31
-            4, 6, 9, 11 -> 30
-            2 -> {
-                if (year % 4 == 0 && year % 100 != 0 || year % 400 == 0) {
-                    29
-                } else {
-                    28
-                }
-            }
-
-            else -> {
-                throw IllegalArgumentException()
-            }
-        }
+        return adapterKeys.getDayAdapterKey(year, month)
     }
 
     override fun onScrollingStarted(wheel: WheelView) {
@@ -163,6 +133,17 @@ class DateWheelLayout @JvmOverloads constructor(
         return intArrayOf(year, month, day)
     }
 
+    /**
+     * 提前在后台线程创建可见Item的View，减少首次显示时的耗时。应在[setConfig]和[setDate]之后调用
+     * @param executor 创建View的线程，为null时使用共用的后台线程
+     */
+    @JvmOverloads
+    fun prewarm(executor: Executor? = null) {
+        wheelLayoutYear.prewarm(executor)
+        wheelLayoutMonth.prewarm(executor)
+        wheelLayoutDay.prewarm(executor)
+    }
+
     fun setDate(year: Int, month: Int, day: Int) {
         wheelLayoutYear.setValue(year)
         adjustMonthDay()
@@ -6,26 +6,32 @@ import android.util.AttributeSet
 import android.view.LayoutInflater
 import android.widget.RelativeLayout
 import android.widget.TextView
-import com.github.kilnn.wheelview.OnWheelChangedListener
 import com.github.kilnn.wheelview.OnWheelScrollListener
 import com.github.kilnn.wheelview.R
+import com.github.kilnn.wheelview.WheelRecycledViewPool
 import com.github.kilnn.wheelview.WheelView
+import com.github.kilnn.wheelview.adapters.WheelLabelCache
+import java.util.concurrent.Executor
 
 class OneWheelLayout @JvmOverloads constructor(
     context: Context,
     attrs: AttributeSet? = null,
     defStyleAttr: Int = 0,
-) : RelativeLayout(context, attrs, defStyleAttr), OnWheelChangedListener {
+) : RelativeLayout(context, attrs, defStyleAttr) {
 
     val wheelView: WheelView
     private val tvPlaceholder: TextView
     private val tvDes: TextView
     private val adapterCache: HashMap<WheelIntAdapterKey, WheelIntAdapter> by lazy { HashMap(5) }
 
+    /**
+     * 所有Adapter使用同一个formatter，所以共用一个文字缓存
+     */
+    private val labelCache: WheelLabelCache by lazy { WheelLabelCache() }
+
     init {
         LayoutInflater.from(context).inflate(R.layout.layout_default_one_wheel, this)
         wheelView = findViewById(R.id.wheel_view)
-        wheelView.addChangingListener(this)
         tvPlaceholder = findViewById(R.id.tv_place_holder)
         tvDes = findViewById(R.id.tv_des)
     }
@@ -37,6 +43,11 @@ class OneWheelLayout @JvmOverloads constructor(
      * @param config
      */
     fun setConfig(config: WheelIntConfig) {
+        if (this.config != null && this.config?.formatter !== config.formatter) {
+            //formatter变化后，缓存的Adapter和文字都不能再使用
+            adapterCache.clear()
+            labelCache.clear()
+        }
         this.config = config
         setAdapterKey(config)
         if (!TextUtils.isEmpty(config.des)) {
@@ -104,18 +115,31 @@ class OneWheelLayout @JvmOverloads constructor(
         return value
     }
 
-    fun addScrollingListener(listener: OnWheelScrollListener) {
-        wheelView.addScrollingListener(listener)
+    /**
+     * 设置Item View的缓存池，多个滑轮可共用同一个缓存池
+     * @param pool 为null时使用滑轮自己的缓存池
+     */
+    fun setRecycledViewPool(pool: WheelRecycledViewPool?) {
+        wheelView.setRecycledViewPool(pool)
     }
 
-    override fun onChanged(wheel: WheelView, oldValue: Int, newValue: Int) {
-        getCurrentAdapter()?.notifyDataChangedEvent()
+    /**
+     * 提前在后台线程创建可见Item的View，减少首次显示时的耗时。应在[setConfig]和[setValue]之后调用
+     * @param executor 创建View的线程，为null时使用共用的后台线程
+     */
+    @JvmOverloads
+    fun prewarm(executor: Executor? = null) {
+        wheelView.prewarmItemViews(executor)
+    }
+
+    fun addScrollingListener(listener: OnWheelScrollListener) {
+        wheelView.addScrollingListener(listener)
     }
 
     private fun getAdapter(key: WheelIntAdapterKey): WheelIntAdapter {
         var adapter = adapterCache[key]
         if (adapter == null) {
-            adapter = WheelIntAdapter(key.min, key.max, config?.formatter)
+            adapter = WheelIntAdapter(key.min, key.max, config?.formatter, labelCache)
             adapterCache[key] = adapter
         }
         return adapter
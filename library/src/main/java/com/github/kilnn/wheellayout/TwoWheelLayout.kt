@@ -6,6 +6,7 @@ import android.util.SparseArray
 import android.widget.LinearLayout
 import com.github.kilnn.wheelview.OnWheelScrollListener
 import com.github.kilnn.wheelview.WheelView
+import java.util.concurrent.Executor
 
 class TwoWheelLayout @JvmOverloads constructor(
     context: Context,
@@ -16,12 +17,17 @@ class TwoWheelLayout @JvmOverloads constructor(
     private val wheelLayoutFirst: OneWheelLayout
     private val wheelLayoutSecond: OneWheelLayout
 
+    /**
+     * 两个滑轮的Item相同，共用一个缓存池
+     */
+    private val recycledViewPool = sharedRecycledViewPool(2)
+
     init {
         orientation = HORIZONTAL
-        wheelLayoutFirst = addOneWheelLayout().apply {
+        wheelLayoutFirst = addOneWheelLayout(recycledViewPool).apply {
             addScrollingListener(this@TwoWheelLayout)
         }
-        wheelLayoutSecond = addOneWheelLayout()
+        wheelLayoutSecond = addOneWheelLayout(recycledViewPool)
     }
 
     private var linkages: SparseArray<WheelIntAdapterKey?>? = null
@@ -78,6 +84,16 @@ class TwoWheelLayout @JvmOverloads constructor(
         setValue(array[0], array[1])
     }
 
+    /**
+     * 提前在后台线程创建可见Item的View，减少首次显示时的耗时。应在[setConfig]和[setValue]之后调用
+     * @param executor 创建View的线程，为null时使用共用的后台线程
+     */
+    @JvmOverloads
+    fun prewarm(executor: Executor? = null) {
+        wheelLayoutFirst.prewarm(executor)
+        wheelLayoutSecond.prewarm(executor)
+    }
+
     fun getValue(): IntArray {
         return intArrayOf(getFirstValue(), getSecondValue())
     }
@@ -6,12 +6,25 @@ import android.view.ViewGroup
 import android.widget.TextView
 import com.github.kilnn.wheelview.R
 import com.github.kilnn.wheelview.adapters.AbstractWheelAdapter
+import com.github.kilnn.wheelview.adapters.WheelLabelCache
+import com.github.kilnn.wheelview.adapters.WheelNumericAdapter
 
 class WheelIntAdapter(
     val min: Int,
     val max: Int,
     private val formatter: WheelIntFormatter? = null,
-) : AbstractWheelAdapter() {
+    /**
+     * 文字缓存，使用同一个[formatter]的Adapter可以共用
+     */
+    labelCache: WheelLabelCache? = null,
+) : AbstractWheelAdapter(), WheelNumericAdapter {
+
+    private val labelCache = labelCache ?: WheelLabelCache()
+
+    /**
+     * 最宽Item的位置，-2表示还未计算
+     */
+    private var cachedWidestIndex = -2
 
     override fun getItemsCount(): Int {
         return max - min + 1
@@ -22,19 +35,69 @@ class WheelIntAdapter(
         val resultView = convertView ?: LayoutInflater.from(parent.context).inflate(R.layout.item_default_wheel_int, parent, false)
         val textView: TextView = resultView.adapterHolder(android.R.id.text1)
         textView.text = getText(index, min + index)
+        resultView.isSelected = false
         return resultView
     }
 
-    private fun getText(index: Int, value: Int): String {
-        return formatter?.format(index, value) ?: value.toString()
+    /**
+     * 选中状态通过[View.isSelected]体现，Item的样式可以使用state_selected的selector
+     */
+    override fun onBindSelectionState(view: View, index: Int, selected: Boolean) {
+        view.isSelected = selected
+    }
+
+    override fun isPlainNumeric(): Boolean {
+        return formatter == null
+    }
+
+    override fun getItemValue(index: Int): Int {
+        return min + index
+    }
+
+    override fun getItemLabel(index: Int): CharSequence? {
+        if (index < 0 || index >= this.itemsCount) return null
+        return getText(index, min + index)
+    }
+
+    private fun getText(index: Int, value: Int): CharSequence {
+        val key = WheelLabelCache.key(index, value)
+        var text = labelCache.get(key)
+        if (text == null) {
+            text = formatter?.format(index, value) ?: value.toString()
+            labelCache.put(key, text)
+        }
+        return text
+    }
+
+    /**
+     * 数据不变，所以只计算一次。
+     * 没有格式化时，最长的文字是最小值或最大值之一；有格式化时，测量所有的文字。
+     * 测量的文字不放入缓存，避免挤掉正在显示的文字
+     */
+    override fun getWidestItemIndex(): Int {
+        if (cachedWidestIndex == -2) {
+            cachedWidestIndex = -1
+            var widest = -1f
+            val count = itemsCount
+            val step = if (formatter == null) maxOf(count - 1, 1) else 1
+            for (index in 0 until count step step) {
+                val value = min + index
+                val width = measureLabel(formatter?.format(index, value) ?: value.toString())
+                if (width > widest) {
+                    widest = width
+                    cachedWidestIndex = index
+                }
+            }
+        }
+        return cachedWidestIndex
     }
 
     /**
      * 获取最长的文字，用于占位。
-     * 一般认为最大值，格式化后的文字最长
      */
     fun getLongestText(): String {
-        return getText(0, max)
+        val index = getWidestItemIndex()
+        return (if (index >= 0) getText(index, min + index) else getText(0, max)).toString()
     }
 
     public override fun notifyDataChangedEvent() {
@@ -44,4 +107,8 @@ class WheelIntAdapter(
     public override fun notifyDataInvalidatedEvent() {
         super.notifyDataInvalidatedEvent()
     }
+
+    public override fun notifyItemChanged(index: Int) {
+        super.notifyItemChanged(index)
+    }
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import android.util.SparseArray
 import android.view.View
 import android.widget.LinearLayout
 import androidx.annotation.IdRes
+import androidx.annotation.RestrictTo
+import com.github.kilnn.wheelview.WheelRecycledViewPool
 import java.math.BigDecimal
 import java.util.*
 
@@ -25,27 +27,57 @@ internal fun <T : View> View.adapterHolder(@IdRes id: Int): T {
     return view as T
 }
 
-internal fun LinearLayout.addOneWheelLayout(): OneWheelLayout {
+internal fun LinearLayout.addOneWheelLayout(pool: WheelRecycledViewPool? = null): OneWheelLayout {
     val view = OneWheelLayout(context)
+    view.setRecycledViewPool(pool)
     val layoutParams = LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1F)
     addView(view, layoutParams)
     return view
 }
 
-private fun Float.roundHalfUp(): Float {
-    var bigDecimal = BigDecimal(this.toDouble())
-    bigDecimal = bigDecimal.setScale(1, BigDecimal.ROUND_HALF_UP)
-    return bigDecimal.toFloat()
+/**
+ * 创建供[count]个滑轮共用的Item View缓存池
+ */
+internal fun sharedRecycledViewPool(count: Int): WheelRecycledViewPool {
+    val pool = WheelRecycledViewPool()
+    pool.setMaxRecycledViews(0, WheelRecycledViewPool.DEFAULT_MAX_RECYCLED_VIEWS * count)
+    return pool
 }
 
-private fun Float.intPart(): Int {
-    return this.toInt()
-}
+/**
+ * 把Float值拆分为整数部分和一位小数部分，供[setFloatConfig]和[setFloatValue]使用。
+ * 与平台无关，benchmark模块直接测试它的耗时
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+object WheelFloatParts {
+
+    /**
+     * 四舍五入，保留一位小数
+     */
+    @JvmStatic
+    fun roundHalfUp(value: Float): Float {
+        var bigDecimal = BigDecimal(value.toDouble())
+        bigDecimal = bigDecimal.setScale(1, BigDecimal.ROUND_HALF_UP)
+        return bigDecimal.toFloat()
+    }
 
-private fun Float.floatPart(): Int {
-    return ((this * 10).toInt()) % 10
+    @JvmStatic
+    fun intPart(value: Float): Int {
+        return value.toInt()
+    }
+
+    @JvmStatic
+    fun floatPart(value: Float): Int {
+        return ((value * 10).toInt()) % 10
+    }
 }
 
+private fun Float.roundHalfUp(): Float = WheelFloatParts.roundHalfUp(this)
+
+private fun Float.intPart(): Int = WheelFloatParts.intPart(this)
+
+private fun Float.floatPart(): Int = WheelFloatParts.floatPart(this)
+
 fun TwoWheelLayout.setFloatConfig(floatConfig: WheelFloatConfig) {
     val min = floatConfig.min.roundHalfUp()
     val max = floatConfig.max.roundHalfUp()
@@ -67,9 +99,7 @@ fun TwoWheelLayout.setFloatConfig(floatConfig: WheelFloatConfig) {
 
 fun TwoWheelLayout.setFloatValue(v: Float) {
     val value = v.roundHalfUp()
-    val intPart = value.toInt()
-    val floatPart = ((value * 10).toInt()) % 10
-    setValue(intPart, floatPart)
+    setValue(value.intPart(), value.floatPart())
 }
 
 fun TwoWheelLayout.getFlowValue(): Float {
@@ -24,10 +24,10 @@ package com.github.kilnn.wheelview;
  */
 public class ItemsRange {
     // First item number
-    private final int first;
+    private int first;
 
     // Items count
-    private final int count;
+    private int count;
 
     /**
      * Default constructor. Creates an empty range
@@ -43,10 +43,51 @@ public class ItemsRange {
      * @param count the count of items
      */
     public ItemsRange(int first, int count) {
+        set(first, count);
+    }
+
+    /**
+     * Sets the range. Lets the wheel reuse one range instead of allocating a new one per frame.
+     *
+     * @param first the number of first item
+     * @param count the count of items
+     */
+    void set(int first, int count) {
         this.first = first;
         this.count = count;
     }
 
+    /**
+     * Calculates the range of items visible in a wheel
+     *
+     * @param currentItem     the current item
+     * @param itemHeight      the item height, must be positive
+     * @param height          the wheel height
+     * @param scrollingOffset the scrolling offset
+     */
+    void calculate(int currentItem, int itemHeight, int height, int scrollingOffset) {
+        int first = currentItem;
+        int count = 1;
+
+        while (count * itemHeight < height) {
+            first--;
+            count += 2; // top + bottom items
+        }
+
+        if (scrollingOffset != 0) {
+            if (scrollingOffset > 0) {
+                first--;
+            }
+            count++;
+
+            // process empty items above the first or below the second
+            int emptyItems = scrollingOffset / itemHeight;
+            first -= emptyItems;
+            count += Math.asin(emptyItems);
+        }
+        set(first, count);
+    }
+
     /**
      * Gets number of  first item
      *
@@ -0,0 +1,17 @@
+package com.github.kilnn.wheelview;
+
+/**
+ * Wheel settled listener interface.
+ * <p>The onValueSettled() method is called once the wheel is at rest:
+ * <li> Scrolling of the wheel has finished
+ * <li> New Wheel position is set without animation
+ */
+public interface OnWheelSettledListener {
+    /**
+     * Callback method to be invoked when the wheel comes to rest
+     *
+     * @param wheel the wheel view whose state has changed
+     * @param value the current item of the wheel at rest
+     */
+    void onValueSettled(WheelView wheel, int value);
+}
@@ -0,0 +1,146 @@
+package com.github.kilnn.wheelview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.text.TextPaint;
+
+/**
+ * Draws integer values from an atlas of pre-rasterized digits.
+ * <p>The ten digits and the minus sign are rasterized once per text style into an ALPHA_8 bitmap.
+ * A value is then drawn as one bitmap quad per digit, tinted with the paint color,
+ * without building strings or laying out text.
+ */
+class WheelDigitAtlas {
+
+    private static final String GLYPHS = "0123456789-";
+    private static final int GLYPH_MINUS = 10;
+    private static final int GLYPH_COUNT = GLYPHS.length();
+
+    /**
+     * Count of digits of the longest int value, with the sign
+     */
+    private static final int MAX_GLYPHS = 11;
+
+    private Bitmap mAtlas;
+    private final float[] mAdvances = new float[GLYPH_COUNT];
+    private int mCellWidth;
+    private int mCellHeight;
+    private int mCellLeft;// the left of cells relative to the glyph origin
+    private int mCellTop;// the top of cells relative to the baseline
+
+    private final Paint mBitmapPaint = new Paint();
+    private final Rect mSrc = new Rect();
+    private final Rect mDst = new Rect();
+    private final int[] mGlyphs = new int[MAX_GLYPHS];
+
+    /**
+     * Discards the atlas, so it is rasterized again with the new text style
+     */
+    void invalidate() {
+        mAtlas = null;
+    }
+
+    /**
+     * Measures the width of a value
+     *
+     * @param paint the text paint
+     * @param value the value
+     * @return the width of the value
+     */
+    float measure(TextPaint paint, int value) {
+        ensureAtlas(paint);
+        int count = toGlyphs(value);
+        float width = 0;
+        for (int i = 0; i < count; i++) {
+            width += mAdvances[mGlyphs[i]];
+        }
+        return width;
+    }
+
+    /**
+     * Draws a value, horizontally centered
+     *
+     * @param canvas   the canvas
+     * @param paint    the text paint, its color is used to tint the glyphs
+     * @param value    the value
+     * @param centerX  the horizontal center of the value
+     * @param baseline the text baseline
+     */
+    void draw(Canvas canvas, TextPaint paint, int value, float centerX, float baseline) {
+        int count = toGlyphs(value);
+        float width = measure(paint, value);
+        mBitmapPaint.setColor(paint.getColor());
+        int top = Math.round(baseline) + mCellTop;
+        float x = centerX - width / 2;
+        for (int i = 0; i < count; i++) {
+            int glyph = mGlyphs[i];
+            // whole pixels keep the glyphs as sharp as they were rasterized
+            int left = Math.round(x) + mCellLeft;
+            mSrc.set(glyph * mCellWidth, 0, (glyph + 1) * mCellWidth, mCellHeight);
+            mDst.set(left, top, left + mCellWidth, top + mCellHeight);
+            canvas.drawBitmap(mAtlas, mSrc, mDst, mBitmapPaint);
+            x += mAdvances[glyph];
+        }
+    }
+
+    /**
+     * Splits the value into glyphs
+     *
+     * @param value the value
+     * @return the count of glyphs
+     */
+    private int toGlyphs(int value) {
+        long abs = Math.abs((long) value);
+        int count = 0;
+        do {
+            mGlyphs[count++] = (int) (abs % 10);
+            abs /= 10;
+        } while (abs > 0);
+        if (value < 0) {
+            mGlyphs[count++] = GLYPH_MINUS;
+        }
+        // reverse to reading order
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int glyph = mGlyphs[i];
+            mGlyphs[i] = mGlyphs[j];
+            mGlyphs[j] = glyph;
+        }
+        return count;
+    }
+
+    /**
+     * Rasterizes the glyphs if the atlas was invalidated
+     *
+     * @param paint the text paint
+     */
+    private void ensureAtlas(TextPaint paint) {
+        if (mAtlas != null) {
+            return;
+        }
+        TextPaint glyphPaint = new TextPaint(paint);
+        glyphPaint.setTextAlign(Paint.Align.LEFT);
+        glyphPaint.setColor(Color.BLACK);
+        Paint.FontMetricsInt fontMetrics = glyphPaint.getFontMetricsInt();
+
+        float maxAdvance = 0;
+        for (int i = 0; i < GLYPH_COUNT; i++) {
+            mAdvances[i] = glyphPaint.measureText(GLYPHS, i, i + 1);
+            maxAdvance = Math.max(maxAdvance, mAdvances[i]);
+        }
+        // one pixel on each side for anti-aliasing
+        int padding = 1;
+        mCellWidth = (int) Math.ceil(maxAdvance) + padding * 2;
+        mCellHeight = fontMetrics.bottom - fontMetrics.top;
+        mCellLeft = -padding;
+        mCellTop = fontMetrics.top;
+
+        mAtlas = Bitmap.createBitmap(mCellWidth * GLYPH_COUNT, Math.max(mCellHeight, 1), Bitmap.Config.ALPHA_8);
+        Canvas canvas = new Canvas(mAtlas);
+        for (int i = 0; i < GLYPH_COUNT; i++) {
+            canvas.drawText(GLYPHS, i, i + 1, i * mCellWidth + padding, -fontMetrics.top, glyphPaint);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.kilnn.wheelview;
+
+import android.graphics.Canvas;
+import android.graphics.RenderNode;
+import android.os.Build;
+
+import androidx.annotation.RequiresApi;
+
+/**
+ * A recorded list of draw operations, replayed on a hardware accelerated canvas
+ * without running the drawing code again.
+ */
+@RequiresApi(Build.VERSION_CODES.Q)
+final class WheelDisplayList {
+
+    private final RenderNode mNode;
+
+    WheelDisplayList(String name) {
+        mNode = new RenderNode(name);
+    }
+
+    /**
+     * Checks whether the display list holds a recording
+     *
+     * @return true if it can be drawn
+     */
+    boolean isValid() {
+        return mNode.hasDisplayList();
+    }
+
+    /**
+     * Starts recording. The returned canvas must be passed to {@link #endRecording()}.
+     *
+     * @param width  the width of the recorded area
+     * @param height the height of the recorded area
+     * @return the canvas to draw into
+     */
+    Canvas beginRecording(int width, int height) {
+        mNode.setPosition(0, 0, width, height);
+        return mNode.beginRecording(width, height);
+    }
+
+    /**
+     * Moves the recording. Only the position of the display list changes, the recording is kept.
+     *
+     * @param left the left of the recording in the canvas it is drawn on
+     * @param top  the top of the recording in the canvas it is drawn on
+     */
+    void setPosition(int left, int top) {
+        if (mNode.getLeft() != left || mNode.getTop() != top) {
+            mNode.setPosition(left, top, left + mNode.getWidth(), top + mNode.getHeight());
+        }
+    }
+
+    /**
+     * Gets the width of the recorded area
+     *
+     * @return the width
+     */
+    int getWidth() {
+        return mNode.getWidth();
+    }
+
+    /**
+     * Gets the height of the recorded area
+     *
+     * @return the height
+     */
+    int getHeight() {
+        return mNode.getHeight();
+    }
+
+    /**
+     * Ends recording
+     */
+    void endRecording() {
+        mNode.endRecording();
+    }
+
+    /**
+     * Discards the recording, so it is recorded again before it is drawn
+     */
+    void invalidate() {
+        mNode.discardDisplayList();
+    }
+
+    /**
+     * Draws the recording
+     *
+     * @param canvas the hardware accelerated canvas
+     */
+    void draw(Canvas canvas) {
+        canvas.drawRenderNode(mNode);
+    }
+}
@@ -0,0 +1,358 @@
+package com.github.kilnn.wheelview;
+
+/**
+ * Layout and scroll state of a wheel: the current item, the scrolling offset, the visible range,
+ * which item views to recycle and where flings stop.
+ * <p>The engine has no Android dependencies, so it can be tested and profiled on a plain JVM.
+ * {@link WheelView} keeps its state here and only adds views, drawing and listeners.
+ * Geometry and item count are passed to each call, the engine doesn't cache them.
+ */
+public final class WheelEngine {
+
+    /**
+     * Receives the item views chosen by {@link #recycleItems(int, int, ItemsRange, Recycler)}
+     */
+    public interface Recycler {
+        /**
+         * Recycles an item view
+         *
+         * @param child    the position of the view among the remaining views, the views after it shift down by one
+         * @param position the virtual position of the item
+         */
+        void recycle(int child, int position);
+    }
+
+    private int currentItem;
+    private float scrollingOffset;//滚动偏移，保留小数，只在绘制时取整
+    private boolean cyclic;
+
+    private final ItemsRange itemsRange = new ItemsRange();//复用，避免每帧创建
+    private final ItemsRange emptyRange = new ItemsRange();
+
+    /**
+     * Gets the current item
+     *
+     * @return the current item
+     */
+    public int getCurrentItem() {
+        return currentItem;
+    }
+
+    /**
+     * Sets the current item and resets the scrolling offset. The index is not checked.
+     *
+     * @param index the item index
+     */
+    public void setCurrentItem(int index) {
+        currentItem = index;
+        scrollingOffset = 0;
+    }
+
+    /**
+     * Gets the scrolling offset
+     *
+     * @return the offset in pixels, with fraction
+     */
+    public float getScrollingOffset() {
+        return scrollingOffset;
+    }
+
+    /**
+     * Gets the scrolling offset rounded to whole pixels, as items are drawn
+     *
+     * @return the offset in pixels
+     */
+    public int getPixelOffset() {
+        return Math.round(scrollingOffset);
+    }
+
+    /**
+     * Sets the scrolling offset
+     *
+     * @param offset the offset in pixels
+     */
+    public void setScrollingOffset(float offset) {
+        scrollingOffset = offset;
+    }
+
+    /**
+     * Tests if the wheel is cyclic
+     *
+     * @return true if the wheel is cyclic
+     */
+    public boolean isCyclic() {
+        return cyclic;
+    }
+
+    /**
+     * Sets the cyclic flag
+     *
+     * @param cyclic the flag to set
+     */
+    public void setCyclic(boolean cyclic) {
+        this.cyclic = cyclic;
+    }
+
+    /**
+     * Checks whether a virtual position shows an item, not an empty item
+     *
+     * @param position  the virtual position
+     * @param itemCount the count of adapter items
+     * @return true if there are items and the position is inside them or the wheel is cyclic
+     */
+    public boolean isValidPosition(long position, int itemCount) {
+        return itemCount > 0 && (cyclic || position >= 0 && position < itemCount);
+    }
+
+    /**
+     * Maps a virtual position to an adapter index, wrapped on a cyclic wheel and clamped otherwise
+     *
+     * @param position  the virtual position
+     * @param itemCount the count of adapter items, must be positive
+     * @return the adapter index
+     */
+    public int toIndex(long position, int itemCount) {
+        return cyclic ? WheelPositions.toIndex(position, itemCount) : WheelPositions.clampIndex(position, itemCount);
+    }
+
+    /**
+     * Checks an index passed to the wheel
+     *
+     * @param index     the item index
+     * @param itemCount the count of adapter items
+     * @return the adapter index, or -1 if the index is out of bounds and the wheel is not cyclic
+     */
+    public int normalizeIndex(int index, int itemCount) {
+        if (itemCount <= 0) {
+            return -1;
+        }
+        if (index >= 0 && index < itemCount) {
+            return index;
+        }
+        return cyclic ? WheelPositions.toIndex(index, itemCount) : -1;
+    }
+
+    /**
+     * Calculates the items to scroll from the current item to another. A cyclic wheel takes the shorter way around.
+     *
+     * @param index     the target index
+     * @param itemCount the count of adapter items
+     * @return the items to scroll, negative to scroll to smaller indices
+     */
+    public int distanceTo(int index, int itemCount) {
+        return WheelPositions.distance(currentItem, index, itemCount, cyclic);
+    }
+
+    /**
+     * Limits items to scroll to what the scroller can animate
+     *
+     * @param items      the items to scroll
+     * @param itemHeight the item height
+     * @return the items to animate, the rest should be jumped over
+     */
+    public long clampScrollItems(long items, int itemHeight) {
+        if (itemHeight <= 0 || Math.abs(items * itemHeight) <= WheelScroller.MAX_SCROLL_DISTANCE) {
+            return items;
+        }
+        return Long.signum(items) * (WheelScroller.MAX_SCROLL_DISTANCE / itemHeight);
+    }
+
+    /**
+     * Calculates the distance for the scroller to scroll items from the current position
+     *
+     * @param items      the items to scroll
+     * @param itemHeight the item height
+     * @return the distance in pixels
+     */
+    public float getScrollDistance(long items, int itemHeight) {
+        return items * itemHeight - scrollingOffset;
+    }
+
+    /**
+     * Scrolls the wheel. Moves the current item by the whole items scrolled, and keeps the rest as offset.
+     *
+     * @param delta      the scrolling value
+     * @param itemHeight the item height
+     * @param height     the wheel height
+     * @param itemCount  the count of adapter items
+     * @return true if the current item changed
+     */
+    public boolean scroll(float delta, int itemHeight, int height, int itemCount) {
+        scrollingOffset += delta;
+        if (itemHeight <= 0 || itemCount <= 0) {
+            return false;
+        }
+
+        int count = (int) (scrollingOffset / itemHeight);
+        long pos = (long) currentItem - count;
+
+        float fixPos = scrollingOffset % itemHeight;
+        if (Math.abs(fixPos) <= itemHeight / 2) {
+            fixPos = 0;
+        }
+        if (cyclic) {
+            if (fixPos > 0) {
+                pos--;
+                count++;
+            } else if (fixPos < 0) {
+                pos++;
+                count--;
+            }
+            // fix position by rotating
+            pos = WheelPositions.toIndex(pos, itemCount);
+        } else {
+            //
+            if (pos < 0) {
+                count = currentItem;
+                pos = 0;
+            } else if (pos >= itemCount) {
+                count = currentItem - itemCount + 1;
+                pos = itemCount - 1;
+            } else if (pos > 0 && fixPos > 0) {
+                pos--;
+                count++;
+            } else if (pos < itemCount - 1 && fixPos < 0) {
+                pos++;
+                count--;
+            }
+        }
+
+        boolean changed = pos != currentItem;
+        currentItem = (int) pos;
+
+        // update offset
+        scrollingOffset -= count * itemHeight;
+        if (height > 0 && scrollingOffset > height) {
+            scrollingOffset = scrollingOffset % height + height;
+        }
+        return changed;
+    }
+
+    /**
+     * Keeps the scrolling offset within one wheel height, a scroll shouldn't go further
+     *
+     * @param height the wheel height
+     * @return true if the offset was limited
+     */
+    public boolean limitOffset(int height) {
+        if (scrollingOffset > height) {
+            scrollingOffset = height;
+            return true;
+        } else if (scrollingOffset < -height) {
+            scrollingOffset = -height;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Calculates where a fling should stop, so it ends exactly on an item
+     *
+     * @param distance   the distance the fling would scroll by itself
+     * @param itemHeight the item height
+     * @param itemCount  the count of adapter items
+     * @return the distance to scroll instead
+     */
+    public float getFlingTarget(float distance, int itemHeight, int itemCount) {
+        if (itemHeight <= 0 || itemCount <= 0) {
+            return distance;
+        }
+        //滚动后的偏移是scrollingOffset - distance，取整到Item，滚动结束时正好停在Item上
+        long items = Math.round((scrollingOffset - distance) / itemHeight);
+        if (!cyclic) {
+            //不循环时不超过第一个和最后一个Item
+            items = Math.max(currentItem - itemCount + 1, Math.min(items, currentItem));
+        }
+        float target = scrollingOffset - items * itemHeight;
+        return Math.max(-WheelScroller.MAX_SCROLL_DISTANCE, Math.min(target, WheelScroller.MAX_SCROLL_DISTANCE));
+    }
+
+    /**
+     * Calculates range for wheel items
+     *
+     * @param itemHeight the item height
+     * @param height     the wheel height
+     * @return the items range, reused by the next call, or null if items have no height
+     */
+    public ItemsRange getItemsRange(int itemHeight, int height) {
+        if (itemHeight <= 0) {
+            return null;
+        }
+        itemsRange.calculate(currentItem, itemHeight, height, getPixelOffset());
+        return itemsRange;
+    }
+
+    /**
+     * Gets a range with no items, to recycle all item views
+     *
+     * @return the empty range
+     */
+    public ItemsRange getEmptyRange() {
+        return emptyRange;
+    }
+
+    /**
+     * Chooses the item views outside a range.
+     *
+     * @param firstItem  the position of the first item view
+     * @param childCount the count of item views
+     * @param range      the range of items to keep
+     * @param recycler   recycles the chosen views
+     * @return the new position of the first item view
+     */
+    public static int recycleItems(int firstItem, int childCount, ItemsRange range, Recycler recycler) {
+        int position = firstItem;
+        for (int i = 0; i < childCount; ) {
+            if (!range.contains(position)) {
+                recycler.recycle(i, position);
+                childCount--;
+                if (i == 0) { // first item
+                    firstItem++;
+                }
+            } else {
+                i++; // go to next item
+            }
+            position++;
+        }
+        return firstItem;
+    }
+
+    /**
+     * Keeps the current item on its data after items were inserted
+     *
+     * @param start     the index of first inserted item
+     * @param count     the count of inserted items
+     * @param itemCount the count of adapter items after the insertion
+     */
+    public void onItemsInserted(int start, int count, int itemCount) {
+        if (start <= currentItem) {
+            currentItem += count;
+        }
+        clampCurrentItem(itemCount);
+    }
+
+    /**
+     * Keeps the current item on its data after items were removed, or on the first item after them if it was removed
+     *
+     * @param start     the index of first removed item
+     * @param count     the count of removed items
+     * @param itemCount the count of adapter items after the removal
+     */
+    public void onItemsRemoved(int start, int count, int itemCount) {
+        if (start + count <= currentItem) {
+            currentItem -= count;
+        } else if (start <= currentItem) {
+            currentItem = start;
+        }
+        clampCurrentItem(itemCount);
+    }
+
+    /**
+     * Keeps the current item inside the items after the count of items changed
+     *
+     * @param itemCount the count of adapter items
+     */
+    public void clampCurrentItem(int itemCount) {
+        currentItem = itemCount > 0 ? WheelPositions.clampIndex(currentItem, itemCount) : 0;
+    }
+}
@@ -0,0 +1,305 @@
+package com.github.kilnn.wheelview;
+
+/**
+ * Performance counters of a wheel, see {@link WheelView#setMetricsEnabled(boolean)}.
+ * <p>{@link WheelView#getMetrics()} returns a snapshot, it is not updated afterwards.
+ * Durations are in nanoseconds.
+ */
+public final class WheelMetrics {
+
+    /**
+     * Upper bounds of the bind latency buckets, in microseconds. The last bucket has no upper bound.
+     */
+    private static final long[] BIND_BUCKET_BOUNDS_US = {50, 100, 250, 500, 1000, 2000, 4000, 8000, 16000};
+
+    /**
+     * An animation frame is janky if it comes later than this many frame intervals after the previous one
+     */
+    private static final float JANK_THRESHOLD = 1.5f;
+
+    // draw
+    private long drawCount;
+    private long drawTime;
+    private long maxDrawTime;
+
+    // rebuild
+    private long rebuildCount;
+    private long rebuildTime;
+    private long maxRebuildTime;
+
+    // bind
+    private long bindCount;
+    private long bindTime;
+    private final long[] bindHistogram = new long[BIND_BUCKET_BOUNDS_US.length + 1];
+    private long inflationCount;
+    private long ignoredConvertViewCount;
+
+    // recycle
+    private long recycleHitCount;
+    private long recycleMissCount;
+
+    // scrolling frames
+    private long scrollCount;
+    private long scrollFrameCount;
+    private long jankyFrameCount;
+    private long lastScrollFrameCount;
+
+    WheelMetrics() {
+    }
+
+    /**
+     * Copies the counters
+     *
+     * @param metrics the metrics to copy
+     */
+    WheelMetrics(WheelMetrics metrics) {
+        drawCount = metrics.drawCount;
+        drawTime = metrics.drawTime;
+        maxDrawTime = metrics.maxDrawTime;
+        rebuildCount = metrics.rebuildCount;
+        rebuildTime = metrics.rebuildTime;
+        maxRebuildTime = metrics.maxRebuildTime;
+        bindCount = metrics.bindCount;
+        bindTime = metrics.bindTime;
+        System.arraycopy(metrics.bindHistogram, 0, bindHistogram, 0, bindHistogram.length);
+        inflationCount = metrics.inflationCount;
+        ignoredConvertViewCount = metrics.ignoredConvertViewCount;
+        recycleHitCount = metrics.recycleHitCount;
+        recycleMissCount = metrics.recycleMissCount;
+        scrollCount = metrics.scrollCount;
+        scrollFrameCount = metrics.scrollFrameCount;
+        jankyFrameCount = metrics.jankyFrameCount;
+        lastScrollFrameCount = metrics.lastScrollFrameCount;
+    }
+
+    void recordDraw(long time) {
+        drawCount++;
+        drawTime += time;
+        maxDrawTime = Math.max(maxDrawTime, time);
+    }
+
+    void recordRebuild(long time) {
+        rebuildCount++;
+        rebuildTime += time;
+        maxRebuildTime = Math.max(maxRebuildTime, time);
+    }
+
+    /**
+     * Records an adapter bind
+     *
+     * @param time        the duration of the bind
+     * @param convertView the view passed to the adapter
+     * @param view        the view returned by the adapter
+     */
+    void recordBind(long time, Object convertView, Object view) {
+        bindCount++;
+        bindTime += time;
+        long us = time / 1000;
+        int bucket = 0;
+        while (bucket < BIND_BUCKET_BOUNDS_US.length && us >= BIND_BUCKET_BOUNDS_US[bucket]) {
+            bucket++;
+        }
+        bindHistogram[bucket]++;
+        if (view != null && view != convertView) {
+            inflationCount++;
+            if (convertView != null) {
+                ignoredConvertViewCount++;
+            }
+        }
+    }
+
+    void setRecycleCounts(long hitCount, long missCount) {
+        recycleHitCount = hitCount;
+        recycleMissCount = missCount;
+    }
+
+    void recordScrollStarted() {
+        scrollCount++;
+        lastScrollFrameCount = 0;
+    }
+
+    /**
+     * Records a frame drawn while scrolling
+     */
+    void recordScrollFrame() {
+        scrollFrameCount++;
+        lastScrollFrameCount++;
+    }
+
+    /**
+     * Records an animation frame that scrolled the wheel
+     *
+     * @param interval      the time since the previous animation frame, 0 if there was none
+     * @param frameInterval the expected interval between frames
+     */
+    void recordAnimationFrame(long interval, long frameInterval) {
+        if (interval > frameInterval * JANK_THRESHOLD) {
+            jankyFrameCount++;
+        }
+    }
+
+    /**
+     * Gets count of draws
+     *
+     * @return the draw count
+     */
+    public long getDrawCount() {
+        return drawCount;
+    }
+
+    /**
+     * Gets total duration of onDraw
+     *
+     * @return the total draw time
+     */
+    public long getDrawTime() {
+        return drawTime;
+    }
+
+    /**
+     * Gets the longest onDraw
+     *
+     * @return the max draw time
+     */
+    public long getMaxDrawTime() {
+        return maxDrawTime;
+    }
+
+    /**
+     * Gets count of item rebuilds
+     *
+     * @return the rebuild count
+     */
+    public long getRebuildCount() {
+        return rebuildCount;
+    }
+
+    /**
+     * Gets total duration of item rebuilds
+     *
+     * @return the total rebuild time
+     */
+    public long getRebuildTime() {
+        return rebuildTime;
+    }
+
+    /**
+     * Gets the longest item rebuild
+     *
+     * @return the max rebuild time
+     */
+    public long getMaxRebuildTime() {
+        return maxRebuildTime;
+    }
+
+    /**
+     * Gets count of adapter getItem and getEmptyItem calls
+     *
+     * @return the bind count
+     */
+    public long getBindCount() {
+        return bindCount;
+    }
+
+    /**
+     * Gets total duration of adapter binds
+     *
+     * @return the total bind time
+     */
+    public long getBindTime() {
+        return bindTime;
+    }
+
+    /**
+     * Gets the bind latency histogram. Bucket i counts binds shorter than
+     * {@link #getBindBucketBound(int)} and not shorter than the bound of bucket i - 1.
+     *
+     * @return a copy of the bucket counts
+     */
+    public long[] getBindHistogram() {
+        return bindHistogram.clone();
+    }
+
+    /**
+     * Gets the upper bound of a bind latency bucket
+     *
+     * @param bucket the bucket
+     * @return the upper bound in nanoseconds, or Long.MAX_VALUE for the last bucket
+     */
+    public static long getBindBucketBound(int bucket) {
+        return bucket < BIND_BUCKET_BOUNDS_US.length ? BIND_BUCKET_BOUNDS_US[bucket] * 1000 : Long.MAX_VALUE;
+    }
+
+    /**
+     * Gets count of item views created by the adapter, instead of reusing the view passed to it
+     *
+     * @return the inflation count
+     */
+    public long getInflationCount() {
+        return inflationCount;
+    }
+
+    /**
+     * Gets count of binds where the adapter was given a view to reuse but returned another one
+     *
+     * @return the count of ignored convert views
+     */
+    public long getIgnoredConvertViewCount() {
+        return ignoredConvertViewCount;
+    }
+
+    /**
+     * Gets count of item view requests served by the recycler
+     *
+     * @return the hit count
+     */
+    public long getRecycleHitCount() {
+        return recycleHitCount;
+    }
+
+    /**
+     * Gets count of item view requests the recycler had no view for
+     *
+     * @return the miss count
+     */
+    public long getRecycleMissCount() {
+        return recycleMissCount;
+    }
+
+    /**
+     * Gets count of scrolls, a drag and the fling after it count as one
+     *
+     * @return the scroll count
+     */
+    public long getScrollCount() {
+        return scrollCount;
+    }
+
+    /**
+     * Gets count of frames drawn while scrolling
+     *
+     * @return the frame count
+     */
+    public long getScrollFrameCount() {
+        return scrollFrameCount;
+    }
+
+    /**
+     * Gets count of frames of the last scroll
+     *
+     * @return the frame count
+     */
+    public long getLastScrollFrameCount() {
+        return lastScrollFrameCount;
+    }
+
+    /**
+     * Gets count of animation frames that came more than 1.5 frame intervals after the previous animation frame.
+     * Dragging frames are not counted, a finger held still doesn't make the next frame janky.
+     *
+     * @return the janky frame count
+     */
+    public long getJankyFrameCount() {
+        return jankyFrameCount;
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.kilnn.wheelview;
+
+/**
+ * Position arithmetic for wheel items.
+ * <p>Positions are virtual 64-bit item numbers: on a cyclic wheel they run past both ends of
+ * the adapter and are mapped back to adapter indices. All methods take constant time,
+ * whatever the distance or the item count.
+ */
+final class WheelPositions {
+
+    private WheelPositions() {
+    }
+
+    /**
+     * Maps a virtual position to the adapter index of a cyclic wheel
+     *
+     * @param position the virtual position, may be negative or beyond the item count
+     * @param count    the count of adapter items, must be positive
+     * @return the adapter index
+     */
+    static int toIndex(long position, int count) {
+        long index = position % count;
+        return (int) (index < 0 ? index + count : index);
+    }
+
+    /**
+     * Clamps a virtual position to the adapter indices of a non-cyclic wheel
+     *
+     * @param position the virtual position
+     * @param count    the count of adapter items, must be positive
+     * @return the nearest adapter index
+     */
+    static int clampIndex(long position, int count) {
+        if (position < 0) {
+            return 0;
+        }
+        if (position >= count) {
+            return count - 1;
+        }
+        return (int) position;
+    }
+
+    /**
+     * Calculates the items to scroll from one adapter index to another.
+     * A cyclic wheel takes the shorter way around.
+     *
+     * @param from   the start index
+     * @param to     the target index
+     * @param count  the count of adapter items
+     * @param cyclic true if the wheel is cyclic
+     * @return the items to scroll, negative to scroll to smaller indices
+     */
+    static int distance(int from, int to, int count, boolean cyclic) {
+        int items = to - from;
+        if (cyclic) {
+            int scroll = count + Math.min(from, to) - Math.max(from, to);
+            if (scroll < Math.abs(items)) {
+                items = items < 0 ? scroll : -scroll;
+            }
+        }
+        return items;
+    }
+}
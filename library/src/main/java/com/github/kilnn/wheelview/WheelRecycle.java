@@ -22,25 +22,41 @@ package com.github.kilnn.wheelview;
 import android.view.View;
 import android.widget.LinearLayout;
 
-import java.util.LinkedList;
-import java.util.List;
+import androidx.annotation.Nullable;
+
+import com.github.kilnn.wheelview.adapters.WheelItemViewAdapter;
+import com.github.kilnn.wheelview.adapters.WheelViewAdapter;
 
 /**
  * Recycle stores wheel items to reuse.
+ * <p>Views are cached in a {@link WheelRecycledViewPool}, per view type and with bounded capacity.
+ * Recycling and reusing a view takes constant time and allocates nothing.
  */
 public class WheelRecycle {
 
-    private final WheelView wheel;
-
     /**
-     * Cached items
+     * View type of empty items
      */
-    private List<View> items;
+    public static final int ITEM_VIEW_TYPE_EMPTY = -1;
+
+    private final WheelView wheel;
 
     /**
-     * Cached empty items
+     * Cached items, either private to the wheel or shared with other wheels
      */
-    private List<View> emptyItems;
+    private WheelRecycledViewPool pool;
+    private boolean isSharedPool;
+
+    private int hitCount;
+    private int missCount;
+
+    private LinearLayout recyclingLayout;//recycleItems正在回收的layout
+    private final WheelEngine.Recycler recycler = new WheelEngine.Recycler() {
+        @Override
+        public void recycle(int child, int position) {
+            recycleItem(recyclingLayout, child, position);
+        }
+    };
 
     /**
      * Constructor
@@ -49,6 +65,7 @@ public class WheelRecycle {
      */
     public WheelRecycle(WheelView wheel) {
         this.wheel = wheel;
+        this.pool = new WheelRecycledViewPool();
     }
 
     /**
@@ -62,29 +79,44 @@ public class WheelRecycle {
      * @return the new value of first item number
      */
     public int recycleItems(LinearLayout layout, int firstItem, ItemsRange range) {
-        int index = firstItem;
-        for (int i = 0; i < layout.getChildCount(); ) {
-            if (!range.contains(index)) {
-                recycleView(layout.getChildAt(i), index);
-                layout.removeViewAt(i);
-                if (i == 0) { // first item
-                    firstItem++;
-                }
-            } else {
-                i++; // go to next item
-            }
-            index++;
-        }
+        wheel.traceBegin(WheelView.TRACE_RECYCLE_ITEMS);
+        recyclingLayout = layout;
+        firstItem = WheelEngine.recycleItems(firstItem, layout.getChildCount(), range, recycler);
+        recyclingLayout = null;
+        wheel.traceEnd();
         return firstItem;
     }
 
     /**
-     * Gets item view
+     * Recycles one item from specified layout
+     *
+     * @param layout the layout containing the item
+     * @param child  the position of item view in layout
+     * @param index  the number of the item
+     */
+    public void recycleItem(LinearLayout layout, int child, int index) {
+        View view = layout.getChildAt(child);
+        layout.removeViewAt(child);
+        recycleView(view, index);
+    }
+
+    /**
+     * Gets item view of the default view type
      *
      * @return the cached view
      */
     public View getItem() {
-        return getCachedView(items);
+        return getItem(0);
+    }
+
+    /**
+     * Gets item view of specified view type
+     *
+     * @param viewType the view type
+     * @return the cached view
+     */
+    public View getItem(int viewType) {
+        return countHit(pool.getRecycledView(viewType));
     }
 
     /**
@@ -93,70 +125,113 @@ public class WheelRecycle {
      * @return the cached empty view
      */
     public View getEmptyItem() {
-        return getCachedView(emptyItems);
+        return countHit(pool.getRecycledView(ITEM_VIEW_TYPE_EMPTY));
     }
 
     /**
-     * Clears all views
+     * Sets the pool to cache views in.
+     *
+     * @param pool the pool shared with other wheels, or null to use a private pool
      */
-    public void clearAll() {
-        if (items != null) {
-            items.clear();
-        }
-        if (emptyItems != null) {
-            emptyItems.clear();
+    public void setRecycledViewPool(@Nullable WheelRecycledViewPool pool) {
+        if (!isSharedPool) {
+            this.pool.clear();
         }
+        isSharedPool = pool != null;
+        this.pool = pool != null ? pool : new WheelRecycledViewPool();
     }
 
     /**
-     * Adds view to specified cache. Creates a cache list if it is null.
+     * Gets the pool views are cached in
      *
-     * @param view  the view to be cached
-     * @param cache the cache list
-     * @return the cache list
+     * @return the pool
      */
-    private List<View> addView(View view, List<View> cache) {
-        if (cache == null) {
-            cache = new LinkedList<>();
-        }
+    public WheelRecycledViewPool getRecycledViewPool() {
+        return pool;
+    }
 
-        cache.add(view);
-        return cache;
+    /**
+     * Gets count of cache hits, i.e. requests served by a cached view
+     *
+     * @return the hit count
+     */
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets count of cache misses, i.e. requests with no cached view of the type
+     *
+     * @return the miss count
+     */
+    public int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Clears all views. A shared pool keeps its views, they stay valid for the other wheels,
+     * only its prewarms in flight are dropped.
+     */
+    public void clearAll() {
+        if (isSharedPool) {
+            pool.cancelPrewarm();
+        } else {
+            pool.clear();
+        }
     }
 
     /**
-     * Adds view to cache. Determines view type (item view or empty one) by index.
+     * Adds view to cache. Determines view type by the type recorded on the view,
+     * or by index if the view has no recorded type.
      *
      * @param view  the view to be cached
      * @param index the index of view
      */
     private void recycleView(View view, int index) {
-        int count = wheel.getViewAdapter().getItemsCount();
-
-        if ((index < 0 || index >= count) && !wheel.isCyclic()) {
-            // empty view
-            emptyItems = addView(view, emptyItems);
+        int viewType;
+        Object tag = view.getTag(R.id.wheel_item_view_type);
+        if (tag instanceof Integer) {
+            viewType = (Integer) tag;
         } else {
-            while (index < 0) {
-                index = count + index;
-            }
-            items = addView(view, items);
+            int count = wheel.getViewAdapter().getItemsCount();
+            viewType = (index < 0 || index >= count) && !wheel.isCyclic() ? ITEM_VIEW_TYPE_EMPTY : 0;
         }
+        pool.putRecycledView(viewType, view);
     }
 
     /**
-     * Gets view from specified cache.
+     * Gets the view type of an item, adapters that aren't {@link WheelItemViewAdapter} have one view type
      *
-     * @param cache the cache
-     * @return the first view from cache.
-     */
-    private View getCachedView(List<View> cache) {
-        if (cache != null && cache.size() > 0) {
-            View view = cache.get(0);
-            cache.remove(0);
-            return view;
-        }
-        return null;
+     * @param adapter the adapter
+     * @param index   the item index
+     * @return the view type
+     */
+    static int getItemViewType(WheelViewAdapter adapter, int index) {
+        return adapter instanceof WheelItemViewAdapter ? ((WheelItemViewAdapter) adapter).getItemViewType(index) : 0;
+    }
+
+    /**
+     * Gets the count of view types of an adapter
+     *
+     * @param adapter the adapter
+     * @return the count of view types
+     */
+    static int getViewTypeCount(WheelViewAdapter adapter) {
+        return adapter instanceof WheelItemViewAdapter ? ((WheelItemViewAdapter) adapter).getViewTypeCount() : 1;
     }
 
+    /**
+     * Counts a cache request
+     *
+     * @param view the cached view, or null
+     * @return the view
+     */
+    private View countHit(View view) {
+        if (view != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return view;
+    }
 }
@@ -0,0 +1,342 @@
+package com.github.kilnn.wheelview;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.github.kilnn.wheelview.adapters.WheelItemViewAdapter;
+import com.github.kilnn.wheelview.adapters.WheelViewAdapter;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Pool of recycled item views that several wheels can share.
+ * <p>Wheels sharing a pool must use adapters whose views of one view type are interchangeable,
+ * e.g. the wheels of a date picker that all inflate the same item layout.
+ * Views are kept per view type, in array-backed deques of bounded capacity.
+ * <p>The pool keeps view types from 0 to {@link #getViewTypeCount()} - 1, a wheel raises the count
+ * to the {@link WheelItemViewAdapter#getViewTypeCount() count of its adapter}.
+ */
+public class WheelRecycledViewPool {
+
+    /**
+     * Default count of cached views per view type
+     */
+    public static final int DEFAULT_MAX_RECYCLED_VIEWS = 16;
+
+    /**
+     * Cached items, indexed by view type
+     */
+    private ScrapDeque[] items;
+
+    /**
+     * Cached empty items
+     */
+    private final ScrapDeque emptyItems = new ScrapDeque(DEFAULT_MAX_RECYCLED_VIEWS);
+
+    /**
+     * Generation of prewarms, views created by a prewarm of an older generation are dropped
+     */
+    private volatile int prewarmGeneration;
+
+    /**
+     * Constructor of a pool keeping one view type
+     */
+    public WheelRecycledViewPool() {
+        this(1);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param viewTypeCount the count of view types to keep
+     */
+    public WheelRecycledViewPool(int viewTypeCount) {
+        if (viewTypeCount < 1) {
+            throw new IllegalArgumentException("viewTypeCount must be at least 1, was " + viewTypeCount);
+        }
+        items = new ScrapDeque[0];
+        ensureViewTypeCount(viewTypeCount);
+    }
+
+    /**
+     * Gets the count of view types the pool keeps
+     *
+     * @return the count of view types
+     */
+    public int getViewTypeCount() {
+        return items.length;
+    }
+
+    /**
+     * Raises the count of view types the pool keeps. The count never shrinks,
+     * other wheels sharing the pool may use more view types.
+     *
+     * @param viewTypeCount the count of view types to keep at least
+     */
+    public void ensureViewTypeCount(int viewTypeCount) {
+        if (viewTypeCount > items.length) {
+            int length = items.length;
+            items = Arrays.copyOf(items, viewTypeCount);
+            for (int i = length; i < items.length; i++) {
+                items[i] = new ScrapDeque(DEFAULT_MAX_RECYCLED_VIEWS);
+            }
+        }
+    }
+
+    /**
+     * Gets a cached view of specified view type and removes it from the pool
+     *
+     * @param viewType the view type, or {@link WheelRecycle#ITEM_VIEW_TYPE_EMPTY}
+     * @return the cached view, or null if there is none
+     * @throws IllegalArgumentException if the pool doesn't keep the view type
+     */
+    public View getRecycledView(int viewType) {
+        return getDeque(viewType).poll();
+    }
+
+    /**
+     * Adds a view to the pool. When the cache of the view type is full, the view replaces the oldest cached one.
+     *
+     * @param viewType the view type, or {@link WheelRecycle#ITEM_VIEW_TYPE_EMPTY}
+     * @param view     the view, must not be attached to a parent
+     * @throws IllegalArgumentException if the pool doesn't keep the view type
+     */
+    public void putRecycledView(int viewType, View view) {
+        getDeque(viewType).offer(view);
+    }
+
+    /**
+     * Sets the max count of cached views of specified view type.
+     *
+     * @param viewType the view type, or {@link WheelRecycle#ITEM_VIEW_TYPE_EMPTY}
+     * @param max      the max count of cached views
+     * @throws IllegalArgumentException if the pool doesn't keep the view type, or max is negative
+     */
+    public void setMaxRecycledViews(int viewType, int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("max must not be negative, was " + max);
+        }
+        getDeque(viewType).setCapacity(max);
+    }
+
+    /**
+     * Gets the count of cached views of specified view type
+     *
+     * @param viewType the view type, or {@link WheelRecycle#ITEM_VIEW_TYPE_EMPTY}
+     * @return the count of cached views
+     * @throws IllegalArgumentException if the pool doesn't keep the view type
+     */
+    public int getRecycledViewCount(int viewType) {
+        return getDeque(viewType).size;
+    }
+
+    /**
+     * Creates item views of an adapter ahead of time and adds them to the pool,
+     * so the first layout of a wheel only binds views instead of inflating them.
+     * <p>Views are created by calling {@link WheelViewAdapter#getItem} with a null convertView on the executor,
+     * which requires the adapter to be safe to read from that thread. Views that can't be created there,
+     * e.g. because they need a Looper, are created on the main thread instead.
+     * <p>Views still in flight when the pool is cleared, or when a wheel using it changes its adapter, are dropped.
+     *
+     * @param adapter  the adapter creating the views
+     * @param parent   the parent the views will be attached to, used for their layout params
+     * @param first    the index of first item to prewarm, wrapped around the adapter
+     * @param count    the count of items to prewarm
+     * @param executor the executor to create views on, or null to use a shared background thread
+     */
+    @MainThread
+    public void prewarm(@NonNull final WheelViewAdapter adapter, @NonNull final ViewGroup parent,
+                        int first, int count, @Nullable Executor executor) {
+        int itemCount = adapter.getItemsCount();
+        if (itemCount == 0 || count <= 0) {
+            return;
+        }
+        ensureViewTypeCount(WheelRecycle.getViewTypeCount(adapter));
+        // Skip the views the pool already holds
+        final int[] indices = new int[count];
+        final int[] viewTypes = new int[count];
+        int prewarmCount = 0;
+        for (int i = 0; i < count; i++) {
+            int index = WheelPositions.toIndex((long) first + i, itemCount);
+            int viewType = WheelRecycle.getItemViewType(adapter, index);
+            int cached = getRecycledViewCount(viewType);
+            for (int j = 0; j < prewarmCount; j++) {
+                if (viewTypes[j] == viewType) {
+                    cached--;
+                }
+            }
+            if (cached <= 0) {
+                indices[prewarmCount] = index;
+                viewTypes[prewarmCount] = viewType;
+                prewarmCount++;
+            }
+        }
+        if (prewarmCount == 0) {
+            return;
+        }
+
+        final int total = prewarmCount;
+        final View[] views = new View[total];
+        final int generation = prewarmGeneration;
+        final Handler handler = new Handler(Looper.getMainLooper());
+        (executor != null ? executor : getPrewarmExecutor()).execute(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < total && generation == prewarmGeneration; i++) {
+                    try {
+                        views[i] = adapter.getItem(indices[i], null, parent);
+                    } catch (RuntimeException e) {
+                        Log.w("WheelRecycledViewPool", "Prewarm item " + indices[i] + " off the main thread failed", e);
+                    }
+                }
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        // the adapter may be replaced or its views dropped since
+                        if (generation != prewarmGeneration) {
+                            return;
+                        }
+                        for (int i = 0; i < total; i++) {
+                            View view = views[i];
+                            if (view == null) {
+                                view = adapter.getItem(indices[i], null, parent);
+                            }
+                            if (view != null && view.getParent() == null) {
+                                putRecycledView(viewTypes[i], view);
+                            }
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private static ExecutorService sPrewarmExecutor;
+
+    /**
+     * Gets the shared background thread for prewarming
+     *
+     * @return the executor
+     */
+    private static synchronized Executor getPrewarmExecutor() {
+        if (sPrewarmExecutor == null) {
+            sPrewarmExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "WheelPrewarm");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return sPrewarmExecutor;
+    }
+
+    /**
+     * Drops the views of prewarms in flight, when they are created they are not added to the pool
+     */
+    @MainThread
+    public void cancelPrewarm() {
+        prewarmGeneration++;
+    }
+
+    /**
+     * Clears all views, including the views of prewarms in flight
+     */
+    @MainThread
+    public void clear() {
+        cancelPrewarm();
+        for (ScrapDeque deque : items) {
+            deque.clear();
+        }
+        emptyItems.clear();
+    }
+
+    /**
+     * Gets the cache of specified view type
+     *
+     * @param viewType the view type, or {@link WheelRecycle#ITEM_VIEW_TYPE_EMPTY}
+     * @return the cache
+     */
+    private ScrapDeque getDeque(int viewType) {
+        if (viewType == WheelRecycle.ITEM_VIEW_TYPE_EMPTY) {
+            return emptyItems;
+        }
+        if (viewType < 0 || viewType >= items.length) {
+            throw new IllegalArgumentException("View type " + viewType + " is out of the " + items.length + " view types of the pool");
+        }
+        return items[viewType];
+    }
+
+    /**
+     * Bounded deque of views backed by a ring array.
+     * When full, a newly offered view replaces the oldest one.
+     */
+    private static final class ScrapDeque {
+        private View[] views;
+        private int head;
+        private int size;
+
+        ScrapDeque(int capacity) {
+            views = new View[capacity];
+        }
+
+        void offer(View view) {
+            if (views.length == 0) {
+                return;
+            }
+            if (size == views.length) {
+                // drop the oldest view
+                views[head] = view;
+                head = (head + 1) % views.length;
+            } else {
+                views[(head + size) % views.length] = view;
+                size++;
+            }
+        }
+
+        View poll() {
+            if (size == 0) {
+                return null;
+            }
+            int last = (head + size - 1) % views.length;
+            View view = views[last];
+            views[last] = null;
+            size--;
+            return view;
+        }
+
+        void setCapacity(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("capacity must not be negative, was " + capacity);
+            }
+            View[] old = views;
+            int oldHead = head;
+            int count = Math.min(size, capacity);
+            views = new View[capacity];
+            // keep the most recently offered views
+            for (int i = 0; i < count; i++) {
+                views[i] = old[(oldHead + size - count + i) % old.length];
+            }
+            head = 0;
+            size = count;
+        }
+
+        void clear() {
+            Arrays.fill(views, null);
+            head = 0;
+            size = 0;
+        }
+    }
+}
@@ -19,19 +19,20 @@
 
 package com.github.kilnn.wheelview;
 
+import android.animation.ValueAnimator;
 import android.content.Context;
+import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
-import android.os.Message;
+import android.view.Choreographer;
 import android.view.GestureDetector;
 import android.view.GestureDetector.SimpleOnGestureListener;
 import android.view.MotionEvent;
+import android.view.ViewConfiguration;
 import android.view.animation.Interpolator;
 import android.widget.Scroller;
 
-import androidx.annotation.NonNull;
-
-import java.lang.ref.WeakReference;
+import androidx.annotation.RequiresApi;
 
 /**
  * Scroller class handles scrolling events and updates the
@@ -44,9 +45,17 @@ public class WheelScroller {
         /**
          * Scrolling callback called when scrolling is performed.
          *
-         * @param distance the distance to scroll
+         * @param distance the distance to scroll, in pixels with sub-pixel precision
          */
-        void onScroll(int distance);
+        void onScroll(float distance);
+
+        /**
+         * Fling callback called when a fling starts, to choose where it ends
+         *
+         * @param distance the distance the fling would scroll, in pixels
+         * @return the distance the fling scrolls instead, e.g. to end exactly on an item
+         */
+        float onFlingTarget(float distance);
 
         /**
          * Starting callback called when scrolling is started
@@ -74,6 +83,16 @@ public class WheelScroller {
      */
     public static final int MIN_DELTA_FOR_SCROLLING = 1;
 
+    /**
+     * Scroller positions are in 1/SUBPIXEL_SCALE pixels, so slow animations keep their sub-pixel movement
+     */
+    private static final int SUBPIXEL_SCALE = 16;
+
+    /**
+     * Max distance in pixels that can be scrolled in one animation
+     */
+    public static final int MAX_SCROLL_DISTANCE = Integer.MAX_VALUE / 2 / SUBPIXEL_SCALE;
+
     // Context
     private final Context context;
 
@@ -86,6 +105,22 @@ public class WheelScroller {
     private int lastScrollY;
     private float lastTouchedY;
     private boolean isScrollingPerformed;
+    private float friction = ViewConfiguration.getScrollFriction();
+    private int maxFlingVelocity;
+
+    // Animation
+    private static final int ANIMATION_NONE = 0;
+    private static final int ANIMATION_SCROLL = 1;
+    private static final int ANIMATION_JUSTIFY = 2;
+    private final FrameScheduler frameScheduler;
+    private int animation = ANIMATION_NONE;
+    private boolean isFramePosted;
+    private boolean isPaused;
+    private String traceSection;
+    // Frame time of the previous animation frame, 0 when the animation was stopped or paused since
+    private long lastFrameTimeNanos;
+    // Time since the previous animation frame, only set while an animation frame runs
+    private long timeSinceLastFrameNanos;
 
     /**
      * Constructor
@@ -108,16 +143,29 @@ public class WheelScroller {
 
             public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
                 lastScrollY = 0;
-                final int maxY = 0x7FFFFFFF;
+                // Scroller positions are relative to the fling start, the wheel maps them to items itself
+                final int maxY = Integer.MAX_VALUE;
                 final int minY = -maxY;
-                scroller.fling(0, lastScrollY, 0, (int) -velocityY, 0, 0, minY, maxY);
-                setNextMessage(AnimationHandler.MESSAGE_SCROLL);
+                velocityY = Math.max(-maxFlingVelocity, Math.min(velocityY, maxFlingVelocity));
+                scroller.fling(0, lastScrollY, 0, (int) (-velocityY * SUBPIXEL_SCALE), 0, 0, minY, maxY);
+                // End the fling where the listener wants, the curve is stretched to it,
+                // so no second animation is needed to justify the wheel
+                float target = listener.onFlingTarget(scroller.getFinalY() / (float) SUBPIXEL_SCALE);
+                scroller.setFinalY(Math.round(target * SUBPIXEL_SCALE));
+                startAnimation(ANIMATION_SCROLL);
                 return true;
             }
         };
         gestureDetector = new GestureDetector(context, gestureListener);
         gestureDetector.setIsLongpressEnabled(false);
-        scroller = new Scroller(context);
+        maxFlingVelocity = ViewConfiguration.get(context).getScaledMaximumFlingVelocity();
+        scroller = createScroller(null);
+        frameScheduler = FrameScheduler.create(new Runnable() {
+            @Override
+            public void run() {
+                doAnimationFrame();
+            }
+        });
     }
 
     /**
@@ -127,22 +175,56 @@ public class WheelScroller {
      */
     public void setInterpolator(Interpolator interpolator) {
         scroller.forceFinished(true);
-        scroller = new Scroller(context, interpolator);
+        scroller = createScroller(interpolator);
+    }
+
+    /**
+     * Creates the scroller working in sub-pixel units
+     *
+     * @param interpolator the interpolator, or null for the default one
+     * @return the scroller
+     */
+    private Scroller createScroller(Interpolator interpolator) {
+        Scroller scroller = new Scroller(context, interpolator);
+        // Fling distance scales with velocity and friction together,
+        // so a scaled velocity with a scaled friction gives the same fling in sub-pixel units
+        scroller.setFriction(friction * SUBPIXEL_SCALE);
+        return scroller;
+    }
+
+    /**
+     * Sets the friction of flings. Higher friction makes flings shorter.
+     *
+     * @param friction the friction, {@link ViewConfiguration#getScrollFriction()} by default
+     */
+    public void setFriction(float friction) {
+        this.friction = friction;
+        scroller.setFriction(friction * SUBPIXEL_SCALE);
+    }
+
+    /**
+     * Sets the max velocity of flings
+     *
+     * @param velocity the max velocity in pixels per second,
+     *                 {@link ViewConfiguration#getScaledMaximumFlingVelocity()} by default
+     */
+    public void setMaxFlingVelocity(int velocity) {
+        this.maxFlingVelocity = velocity;
     }
 
     /**
      * Scroll the wheel
      *
-     * @param distance the scrolling distance
+     * @param distance the scrolling distance in pixels, at most {@link #MAX_SCROLL_DISTANCE}
      * @param time     the scrolling duration
      */
-    public void scroll(int distance, int time) {
+    public void scroll(float distance, int time) {
         scroller.forceFinished(true);
 
         lastScrollY = 0;
 
-        scroller.startScroll(0, 0, 0, distance, time != 0 ? time : SCROLLING_DURATION);
-        setNextMessage(AnimationHandler.MESSAGE_SCROLL);
+        scroller.startScroll(0, 0, 0, Math.round(distance * SUBPIXEL_SCALE), time != 0 ? time : SCROLLING_DURATION);
+        startAnimation(ANIMATION_SCROLL);
 
         startScrolling();
     }
@@ -165,12 +247,12 @@ public class WheelScroller {
             case MotionEvent.ACTION_DOWN:
                 lastTouchedY = event.getY();
                 scroller.forceFinished(true);
-                clearMessages();
+                stopAnimation();
                 break;
 
             case MotionEvent.ACTION_MOVE:
                 // perform scrolling
-                int distanceY = (int) (event.getY() - lastTouchedY);
+                float distanceY = event.getY() - lastTouchedY;
                 if (distanceY != 0) {
                     startScrolling();
                     listener.onScroll(distanceY);
@@ -187,73 +269,222 @@ public class WheelScroller {
     }
 
     /**
-     * Set next message to queue. Clears queue before.
+     * Sets the name of the trace section around animation frames
      *
-     * @param message the message to set
+     * @param section the section name, or null to not trace frames
      */
-    private void setNextMessage(int message) {
-        clearMessages();
-        animationHandler.sendEmptyMessage(message);
+    public void setTraceSection(String section) {
+        this.traceSection = section;
     }
 
     /**
-     * Clears messages from queue
+     * Pauses the animation, e.g. when the wheel is detached from window.
+     * The animation frames are not scheduled until {@link #resume()} is called.
      */
-    private void clearMessages() {
-        animationHandler.removeMessages(AnimationHandler.MESSAGE_SCROLL);
-        animationHandler.removeMessages(AnimationHandler.MESSAGE_JUSTIFY);
+    public void pause() {
+        isPaused = true;
+        lastFrameTimeNanos = 0;
+        if (isFramePosted) {
+            frameScheduler.remove();
+            isFramePosted = false;
+        }
     }
 
-    private static class AnimationHandler extends Handler {
-        // Messages
-        private static final int MESSAGE_SCROLL = 0;
-        private static final int MESSAGE_JUSTIFY = 1;
+    /**
+     * Resumes the animation paused by {@link #pause()}
+     */
+    public void resume() {
+        isPaused = false;
+        if (animation != ANIMATION_NONE) {
+            postFrame();
+        }
+    }
 
-        private final WeakReference<WheelScroller> reference;
+    /**
+     * Starts the animation. Replaces the running one.
+     *
+     * @param animation the animation to start
+     */
+    private void startAnimation(int animation) {
+        this.animation = animation;
+        postFrame();
+    }
 
-        public AnimationHandler(WheelScroller scroller) {
-            super(Looper.getMainLooper());
-            reference = new WeakReference<>(scroller);
+    /**
+     * Stops the running animation
+     */
+    private void stopAnimation() {
+        animation = ANIMATION_NONE;
+        lastFrameTimeNanos = 0;
+        if (isFramePosted) {
+            frameScheduler.remove();
+            isFramePosted = false;
         }
+    }
 
-        @Override
-        public void handleMessage(@NonNull Message msg) {
-            final WheelScroller wheelScroller = reference.get();
-            if (wheelScroller == null) return;
-            final Scroller scroller = wheelScroller.scroller;
-
-            scroller.computeScrollOffset();
-            int currY = scroller.getCurrY();
-            int delta = wheelScroller.lastScrollY - currY;
-            wheelScroller.lastScrollY = currY;
-            if (delta != 0) {
-                wheelScroller.listener.onScroll(delta);
-            }
+    /**
+     * Schedules the next animation frame, at most one frame is pending
+     */
+    private void postFrame() {
+        if (!isFramePosted && !isPaused) {
+            isFramePosted = true;
+            frameScheduler.post();
+        }
+    }
 
-            // scrolling is not finished when it comes to final Y
-            // so, finish it manually
-            if (Math.abs(currY - scroller.getFinalY()) < MIN_DELTA_FOR_SCROLLING) {
-                scroller.forceFinished(true);
-            }
-            if (!scroller.isFinished()) {
-                sendEmptyMessage(msg.what);
-            } else if (msg.what == MESSAGE_SCROLL) {
-                wheelScroller.justify();
+    /**
+     * Advances the animation by one frame
+     */
+    private void doAnimationFrame() {
+        isFramePosted = false;
+        if (animation == ANIMATION_NONE) return;
+        if (traceSection != null) {
+            WheelTrace.beginSection(traceSection);
+        }
+        long frameTime = frameScheduler.frameTimeNanos;
+        timeSinceLastFrameNanos = lastFrameTimeNanos != 0 ? frameTime - lastFrameTimeNanos : 0;
+        lastFrameTimeNanos = frameTime;
+        stepAnimation();
+        timeSinceLastFrameNanos = 0;
+        if (animation == ANIMATION_NONE) {
+            lastFrameTimeNanos = 0;
+        }
+        if (traceSection != null) {
+            WheelTrace.endSection();
+        }
+    }
+
+    /**
+     * Gets the time since the previous frame of the animation. Only animation frames that follow each other
+     * are measured, so time spent dragging or idle is not counted.
+     *
+     * @return the interval in nanoseconds while the listener is called from an animation frame,
+     * 0 on the first frame of an animation or outside animation frames
+     */
+    long getTimeSinceLastFrameNanos() {
+        return timeSinceLastFrameNanos;
+    }
+
+    /**
+     * Scrolls by the animation of this frame, and finishes the animation if it is done
+     */
+    private void stepAnimation() {
+        scroller.computeScrollOffset();
+        int currY = scroller.getCurrY();
+        // scrolling is not finished when it comes to final Y
+        // so, finish it manually
+        if (Math.abs(currY - scroller.getFinalY()) < MIN_DELTA_FOR_SCROLLING * SUBPIXEL_SCALE) {
+            currY = scroller.getFinalY();
+            scroller.forceFinished(true);
+        }
+        int delta = lastScrollY - currY;
+        lastScrollY = currY;
+        if (delta != 0) {
+            listener.onScroll(delta / (float) SUBPIXEL_SCALE);
+        }
+        if (!scroller.isFinished()) {
+            postFrame();
+        } else if (animation == ANIMATION_SCROLL) {
+            justify();
+        } else {
+            animation = ANIMATION_NONE;
+            finishScrolling();
+        }
+    }
+
+    /**
+     * Schedules animation frames on the main thread
+     */
+    private abstract static class FrameScheduler {
+
+        static FrameScheduler create(Runnable frame) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                return new ChoreographerFrameScheduler(frame);
             } else {
-                wheelScroller.finishScrolling();
+                return new HandlerFrameScheduler(frame);
             }
         }
+
+        final Runnable frame;
+        // the time of the frame being run, in the System.nanoTime() time base
+        long frameTimeNanos;
+
+        FrameScheduler(Runnable frame) {
+            this.frame = frame;
+        }
+
+        /**
+         * Posts the frame to be run before the next frame is drawn
+         */
+        abstract void post();
+
+        /**
+         * Removes the posted frame
+         */
+        abstract void remove();
+    }
+
+    /**
+     * Runs frames on vsync
+     */
+    @RequiresApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static class ChoreographerFrameScheduler extends FrameScheduler implements Choreographer.FrameCallback {
+        private final Choreographer choreographer = Choreographer.getInstance();
+
+        ChoreographerFrameScheduler(Runnable frame) {
+            super(frame);
+        }
+
+        @Override
+        void post() {
+            choreographer.postFrameCallback(this);
+        }
+
+        @Override
+        void remove() {
+            choreographer.removeFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            this.frameTimeNanos = frameTimeNanos;
+            frame.run();
+        }
     }
 
-    // animation handler
-    private final Handler animationHandler = new AnimationHandler(this);
+    /**
+     * Runs frames with the animation frame delay, for platforms without Choreographer
+     */
+    private static class HandlerFrameScheduler extends FrameScheduler implements Runnable {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        HandlerFrameScheduler(Runnable frame) {
+            super(frame);
+        }
+
+        @Override
+        void post() {
+            handler.postDelayed(this, ValueAnimator.getFrameDelay());
+        }
+
+        @Override
+        void remove() {
+            handler.removeCallbacks(this);
+        }
+
+        @Override
+        public void run() {
+            frameTimeNanos = System.nanoTime();
+            frame.run();
+        }
+    }
 
     /**
      * Justifies wheel
      */
     private void justify() {
         listener.onJustify();
-        setNextMessage(AnimationHandler.MESSAGE_JUSTIFY);
+        startAnimation(ANIMATION_JUSTIFY);
     }
 
     /**
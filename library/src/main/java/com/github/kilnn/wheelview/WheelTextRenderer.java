@@ -0,0 +1,188 @@
+package com.github.kilnn.wheelview;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.text.TextPaint;
+import android.text.TextUtils;
+
+import com.github.kilnn.wheelview.adapters.WheelNumericAdapter;
+import com.github.kilnn.wheelview.adapters.WheelTextAdapter;
+
+import java.util.Arrays;
+
+/**
+ * Draws the labels of a {@link WheelTextAdapter} directly on the canvas.
+ * Labels are cached per item index, so a label is formatted and measured only once
+ * while it stays in the visible part of the wheel.
+ */
+class WheelTextRenderer {
+
+    /**
+     * Count of cached labels. Must be larger than the count of visible items.
+     */
+    private static final int CACHE_SIZE = 32;
+
+    private final TextPaint mPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint.FontMetricsInt mFontMetrics = new Paint.FontMetricsInt();
+    private final WheelDigitAtlas mDigitAtlas = new WheelDigitAtlas();
+    private int mItemPadding;
+
+    // Label cache, the slot of an item is index % CACHE_SIZE
+    private final int[] mCachedIndices = new int[CACHE_SIZE];
+    private final CharSequence[] mCachedLabels = new CharSequence[CACHE_SIZE];
+    private final float[] mCachedWidths = new float[CACHE_SIZE];
+    private final CharSequence[] mEllipsizedLabels = new CharSequence[CACHE_SIZE];
+
+    // The width labels are ellipsized to, 0 if unlimited
+    private int mMaxWidth;
+
+    WheelTextRenderer() {
+        mPaint.setTextAlign(Paint.Align.CENTER);
+        mPaint.getFontMetricsInt(mFontMetrics);
+        clear();
+    }
+
+    void setTextSize(float size) {
+        if (mPaint.getTextSize() != size) {
+            mPaint.setTextSize(size);
+            mPaint.getFontMetricsInt(mFontMetrics);
+            mDigitAtlas.invalidate();
+            clear();
+        }
+    }
+
+    void setTextColor(int color) {
+        mPaint.setColor(color);
+    }
+
+    int getTextColor() {
+        return mPaint.getColor();
+    }
+
+    void setTypeface(Typeface typeface) {
+        mPaint.setTypeface(typeface);
+        mPaint.getFontMetricsInt(mFontMetrics);
+        mDigitAtlas.invalidate();
+        clear();
+    }
+
+    void setItemPadding(int padding) {
+        mItemPadding = padding;
+    }
+
+    /**
+     * Sets the width labels are ellipsized to
+     *
+     * @param width the max label width, 0 if unlimited
+     */
+    void setMaxWidth(int width) {
+        if (mMaxWidth != width) {
+            mMaxWidth = width;
+            Arrays.fill(mEllipsizedLabels, null);
+        }
+    }
+
+    /**
+     * Returns height of one text item
+     *
+     * @return the item height
+     */
+    int getItemHeight() {
+        return mFontMetrics.descent - mFontMetrics.ascent + mItemPadding * 2;
+    }
+
+    /**
+     * Returns the full width of specified item label, regardless of the max width
+     *
+     * @param adapter the text adapter
+     * @param index   the item index, must be a valid adapter index
+     * @return the label width
+     */
+    float getLabelWidth(WheelTextAdapter adapter, int index) {
+        return mCachedWidths[obtainSlot(adapter, index)];
+    }
+
+    /**
+     * Draws the label of specified item, centered in the item bounds
+     *
+     * @param canvas  the canvas
+     * @param adapter the text adapter
+     * @param index   the item index, must be a valid adapter index
+     * @param left    the left of item bounds
+     * @param top     the top of item bounds
+     * @param right   the right of item bounds
+     * @param bottom  the bottom of item bounds
+     */
+    void drawItem(Canvas canvas, WheelTextAdapter adapter, int index, float left, float top, float right, float bottom) {
+        float baseline = (top + bottom - mFontMetrics.ascent - mFontMetrics.descent) / 2;
+        if (adapter instanceof WheelNumericAdapter && ((WheelNumericAdapter) adapter).isPlainNumeric()) {
+            //纯数字直接使用预先栅格化的数字绘制，不需要创建和排版文字
+            int value = ((WheelNumericAdapter) adapter).getItemValue(index);
+            if (mMaxWidth <= 0 || mDigitAtlas.measure(mPaint, value) <= mMaxWidth) {
+                mDigitAtlas.draw(canvas, mPaint, value, (left + right) / 2, baseline);
+                return;
+            }
+        }
+        int slot = obtainSlot(adapter, index);
+        CharSequence label = mCachedLabels[slot];
+        if (label.length() == 0) {
+            return;
+        }
+        if (mMaxWidth > 0 && mCachedWidths[slot] > mMaxWidth) {
+            if (mEllipsizedLabels[slot] == null) {
+                mEllipsizedLabels[slot] = TextUtils.ellipsize(label, mPaint, mMaxWidth, TextUtils.TruncateAt.END);
+            }
+            label = mEllipsizedLabels[slot];
+        }
+        canvas.drawText(label, 0, label.length(), (left + right) / 2, baseline, mPaint);
+    }
+
+    /**
+     * Clears cached labels of specified items
+     *
+     * @param start the index of first item
+     * @param count the count of items
+     */
+    void clear(int start, int count) {
+        for (int slot = 0; slot < CACHE_SIZE; slot++) {
+            int index = mCachedIndices[slot];
+            if (index >= start && index - start < count) {
+                mCachedIndices[slot] = -1;
+                mCachedLabels[slot] = null;
+                mEllipsizedLabels[slot] = null;
+            }
+        }
+    }
+
+    /**
+     * Clears all cached labels
+     */
+    void clear() {
+        Arrays.fill(mCachedIndices, -1);
+        Arrays.fill(mCachedLabels, null);
+        Arrays.fill(mEllipsizedLabels, null);
+    }
+
+    /**
+     * Gets the cache slot of specified item. Formats and measures the label if it is not cached.
+     *
+     * @param adapter the text adapter
+     * @param index   the item index
+     * @return the cache slot
+     */
+    private int obtainSlot(WheelTextAdapter adapter, int index) {
+        int slot = index % CACHE_SIZE;
+        if (mCachedIndices[slot] != index) {
+            CharSequence label = adapter.getItemLabel(index);
+            if (label == null) {
+                label = "";
+            }
+            mCachedIndices[slot] = index;
+            mCachedLabels[slot] = label;
+            mCachedWidths[slot] = mPaint.measureText(label, 0, label.length());
+            mEllipsizedLabels[slot] = null;
+        }
+        return slot;
+    }
+}
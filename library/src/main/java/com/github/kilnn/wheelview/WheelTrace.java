@@ -0,0 +1,48 @@
+package com.github.kilnn.wheelview;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Trace sections shown in systrace and Perfetto. Sections are not recorded before API 18.
+ */
+final class WheelTrace {
+
+    /**
+     * Max length of a section name accepted by {@link Trace#beginSection(String)}
+     */
+    private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+    private WheelTrace() {
+    }
+
+    /**
+     * Makes a section name that fits the trace
+     *
+     * @param name the wanted name
+     * @return the name, truncated if too long
+     */
+    static String sectionName(String name) {
+        return name.length() > MAX_SECTION_NAME_LENGTH ? name.substring(0, MAX_SECTION_NAME_LENGTH) : name;
+    }
+
+    /**
+     * Begins a section, must be ended on the same thread
+     *
+     * @param name the section name
+     */
+    static void beginSection(String name) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(name);
+        }
+    }
+
+    /**
+     * Ends the last section begun on this thread
+     */
+    static void endSection() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.endSection();
+        }
+    }
+}
@@ -20,32 +20,42 @@
 package com.github.kilnn.wheelview;
 
 import android.content.Context;
+import android.content.res.Resources;
 import android.content.res.TypedArray;
-import android.database.DataSetObserver;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.PorterDuff;
 import android.graphics.PorterDuffXfermode;
 import android.graphics.Rect;
+import android.graphics.Region;
+import android.graphics.Typeface;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.GradientDrawable;
 import android.graphics.drawable.GradientDrawable.Orientation;
 import android.os.Build;
 import android.util.AttributeSet;
+import android.util.TypedValue;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewGroup;
 import android.view.ViewGroup.LayoutParams;
+import android.view.ViewGroup.MarginLayoutParams;
 import android.view.animation.Interpolator;
 import android.widget.LinearLayout;
 
 import androidx.annotation.ColorInt;
 import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
 
+import com.github.kilnn.wheelview.adapters.PagedWheelAdapter;
+import com.github.kilnn.wheelview.adapters.WheelDataSetObserver;
+import com.github.kilnn.wheelview.adapters.WheelItemViewAdapter;
+import com.github.kilnn.wheelview.adapters.WheelTextAdapter;
 import com.github.kilnn.wheelview.adapters.WheelViewAdapter;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
 
 
 /**
@@ -55,24 +65,72 @@ import java.util.List;
  */
 public class WheelView extends View {
 
+    /**
+     * Changing listeners are notified of every item change, synchronously
+     */
+    public static final int DISPATCH_IMMEDIATE = 0;
+
+    /**
+     * Changing listeners are notified at most once per frame, of the changes coalesced since the last frame
+     */
+    public static final int DISPATCH_PER_FRAME = 1;
+
+    // Traced steps, indices of mTraceSections
+    static final int TRACE_MEASURE = 0;
+    static final int TRACE_BUILD_FOR_MEASURING = 1;
+    static final int TRACE_UPDATE_VIEW = 2;
+    static final int TRACE_REBUILD_ITEMS = 3;
+    static final int TRACE_RECYCLE_ITEMS = 4;
+    static final int TRACE_GET_ITEM = 5;
+    static final int TRACE_GET_EMPTY_ITEM = 6;
+    static final int TRACE_DO_SCROLL = 7;
+    static final int TRACE_SCROLLER_FRAME = 8;
+    private static final String[] TRACE_STEPS = {
+            "onMeasure", "buildViewForMeasuring", "updateView", "rebuildItems", "recycleItems",
+            "getItem", "getEmptyItem", "doScroll", "WheelScroller frame"
+    };
+
     private final Paint mHighlightPaint;
     private final PorterDuffXfermode mXfermode;
     private final LinearLayout mItemsLayout; // Items layout
     private int mVisibleItems;// Count of visible items
-    private boolean isCyclic;//是否可以循环滚动
     private boolean mDrawHighlight;
 
     private WheelViewAdapter mViewAdapter;
     private int mFirstItem;// The number of first item in layout
-    private int mCurrentItem = 0;
+    private final WheelEngine mEngine = new WheelEngine();//当前Item、滚动偏移等与平台无关的状态和计算
 
     // Recycle
     private final WheelRecycle mRecycle = new WheelRecycle(this);
 
     //Listeners//
-    private final List<OnWheelChangedListener> mChangingListeners = new LinkedList<>();
-    private final List<OnWheelScrollListener> mScrollingListeners = new LinkedList<>();
-    private final List<OnWheelClickedListener> mClickingListeners = new LinkedList<>();
+    //监听器数组只在增删时复制，分发时不需要复制，也允许在回调中增删监听器
+    private OnWheelChangedListener[] mChangingListeners = new OnWheelChangedListener[0];
+    private OnWheelScrollListener[] mScrollingListeners = new OnWheelScrollListener[0];
+    private OnWheelClickedListener[] mClickingListeners = new OnWheelClickedListener[0];
+    private OnWheelSettledListener[] mSettledListeners = new OnWheelSettledListener[0];
+    private int mChangeDispatchMode = DISPATCH_IMMEDIATE;//Changing事件的分发方式
+    private boolean isChangePending;//是否有等待下一帧分发的Changing事件
+    private int mPendingOldValue;
+    private int mPendingNewValue;
+    private boolean isJumpPending;//scroll()跳过了中间的Item，还未通知
+    private int mJumpOldValue;//跳过之前的Item
+    //Trace//
+    private boolean isTracingEnabled;//是否记录Trace
+    private String[] mTraceSections;//各步骤的Section名称，带有滑轮id和Adapter类名。未开启时为null
+
+    //Metrics//
+    private WheelMetrics mMetrics;//性能统计，未开启时为null
+    private long mFrameIntervalNanos;//屏幕刷新的帧间隔
+    private int mMetricsRecycleHits;//开启统计时WheelRecycle的命中数
+    private int mMetricsRecycleMisses;
+
+    private final Runnable mDispatchChangeRunnable = new Runnable() {
+        @Override
+        public void run() {
+            dispatchPendingChange();
+        }
+    };
 
     //Background,Shadow,Divider//
     private Drawable mCenterBackground;//滑轮中心区域的背景
@@ -81,18 +139,36 @@ public class WheelView extends View {
     private GradientDrawable mTopShadow;
     private GradientDrawable mBottomShadow;
     private Drawable mDividerDrawable;//滑轮中心区域上下两条分割线
+    private WheelDisplayList mBackgroundLayer;//缓存的Center背景，API 29以下为null
+    private WheelDisplayList mOverlayLayer;//缓存的分割线，Center前景和阴影，API 29以下为null
+    private final Rect mLayerBounds = new Rect();//缓存时的绘制区域
+    private int mLayerCenterTop;//缓存时的中心区域
+    private int mLayerCenterBottom;
+    private boolean isLayerHasItems;//缓存时是否有Item
+    private boolean isLayersDirty = true;//缓存的装饰需要重新录制
+
+    //Text mode//
+    private boolean isTextMode;//是否直接在Canvas上绘制文字，不创建Item View
+    private final WheelTextRenderer mTextRenderer = new WheelTextRenderer();
+
+    //Fixed item size//
+    private int mFixedItemWidth;//固定的Item内容宽度，0表示需要测量
+    private int mFixedItemHeight;//固定的Item高度，0表示需要测量
+    private View mWidestItemView;//用于测量宽度的最宽Item View
+    private int mWidestItemIndex = -1;//mWidestItemView绑定的Item
+    private View mSelectedView;//当前处于选中状态的Item View
+    private int mSelectedItem;//mSelectedView对应的Item
 
     // Scrolling
     private final WheelScroller mScroller;
     private boolean isScrollingPerformed;
-    private int mScrollingOffset;
 
     //Temp
     private int mItemHeight = 0;//Item的高度，避免每次计算
     private final Rect mTempRect = new Rect();
 
     // Adapter listener
-    private final DataSetObserver mDataObserver = new DataSetObserver() {
+    private final WheelDataSetObserver mDataObserver = new WheelDataSetObserver() {
         @Override
         public void onChanged() {
             invalidateWheel(false);
@@ -102,6 +178,29 @@ public class WheelView extends View {
         public void onInvalidated() {
             invalidateWheel(true);
         }
+
+        @Override
+        public void onItemRangeChanged(int start, int count) {
+            rebindItems(start, count);
+        }
+
+        @Override
+        public void onItemRangeInserted(int start, int count) {
+            //保持当前选中的数据不变，位置变化时通知
+            int old = mEngine.getCurrentItem();
+            mEngine.onItemsInserted(start, count, getItemsCount());
+            invalidateWheel(false);
+            onSelectedItemMoved(old, false);
+        }
+
+        @Override
+        public void onItemRangeRemoved(int start, int count) {
+            //保持当前选中的数据不变，选中的数据被移除时，选中移除位置的数据
+            int old = mEngine.getCurrentItem();
+            mEngine.onItemsRemoved(start, count, getItemsCount());
+            invalidateWheel(false);
+            onSelectedItemMoved(old, old >= start && old < start + count);
+        }
     };
 
     /**
@@ -125,7 +224,7 @@ public class WheelView extends View {
         super(context, attrs, defStyleAttr);
         final TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.WheelView, defStyleAttr, 0);
         mVisibleItems = a.getInt(R.styleable.WheelView_visible_items, 5);
-        isCyclic = a.getBoolean(R.styleable.WheelView_is_cyclic, false);
+        mEngine.setCyclic(a.getBoolean(R.styleable.WheelView_is_cyclic, false));
         mDrawHighlight = a.getBoolean(R.styleable.WheelView_draw_highlight, false);
         int highlightColor = a.getColor(R.styleable.WheelView_highlight_color, Color.WHITE);
         mCenterBackground = a.getDrawable(R.styleable.WheelView_center_background);
@@ -134,6 +233,14 @@ public class WheelView extends View {
         int shadowsColor = a.getColor(R.styleable.WheelView_shadows_color, Color.WHITE);
         setShadowColor(shadowsColor);
         mDividerDrawable = a.getDrawable(R.styleable.WheelView_divider);
+        isTextMode = a.getBoolean(R.styleable.WheelView_text_mode, false);
+        float defaultTextSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 18, getResources().getDisplayMetrics());
+        mTextRenderer.setTextSize(a.getDimension(R.styleable.WheelView_item_text_size, defaultTextSize));
+        mTextRenderer.setTextColor(a.getColor(R.styleable.WheelView_item_text_color, Color.BLACK));
+        int defaultTextPadding = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 8, getResources().getDisplayMetrics());
+        mTextRenderer.setItemPadding(a.getDimensionPixelSize(R.styleable.WheelView_item_text_padding, defaultTextPadding));
+        mFixedItemWidth = a.getDimensionPixelSize(R.styleable.WheelView_item_width, 0);
+        mFixedItemHeight = a.getDimensionPixelSize(R.styleable.WheelView_item_height, 0);
         a.recycle();
 
         mHighlightPaint = new Paint();
@@ -145,38 +252,51 @@ public class WheelView extends View {
             @Override
             public void onStarted() {
                 isScrollingPerformed = true;
+                if (mMetrics != null) {
+                    mMetrics.recordScrollStarted();
+                }
                 notifyScrollingListenersAboutStart();
             }
 
             @Override
-            public void onScroll(int distance) {
+            public void onScroll(float distance) {
+                if (mMetrics != null) {
+                    //只统计连续动画帧的间隔，拖动时为0
+                    mMetrics.recordAnimationFrame(mScroller.getTimeSinceLastFrameNanos(), mFrameIntervalNanos);
+                }
+                traceBegin(TRACE_DO_SCROLL);
                 doScroll(distance);
+                traceEnd();
 
-                int height = getHeight();
-                if (mScrollingOffset > height) {
-                    mScrollingOffset = height;
-                    mScroller.stopScrolling();
-                } else if (mScrollingOffset < -height) {
-                    mScrollingOffset = -height;
+                if (mEngine.limitOffset(getHeight())) {
                     mScroller.stopScrolling();
                 }
             }
 
+            @Override
+            public float onFlingTarget(float distance) {
+                return mEngine.getFlingTarget(distance, getItemHeight(), getItemsCount());
+            }
+
             @Override
             public void onFinished() {
                 if (isScrollingPerformed) {
+                    dispatchJump();
+                    dispatchPendingChange();
                     notifyScrollingListenersAboutEnd();
                     isScrollingPerformed = false;
+                    notifySettledListeners(mEngine.getCurrentItem());
                 }
 
-                mScrollingOffset = 0;
+                mEngine.setScrollingOffset(0);
                 invalidate();
             }
 
             @Override
             public void onJustify() {
-                if (Math.abs(mScrollingOffset) > WheelScroller.MIN_DELTA_FOR_SCROLLING) {
-                    mScroller.scroll(mScrollingOffset, 0);
+                float offset = mEngine.getScrollingOffset();
+                if (Math.abs(offset) > WheelScroller.MIN_DELTA_FOR_SCROLLING) {
+                    mScroller.scroll(offset, 0);
                 }
             }
         };
@@ -195,6 +315,23 @@ public class WheelView extends View {
         mScroller.setInterpolator(interpolator);
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (mMetrics != null) {
+            mFrameIntervalNanos = getFrameIntervalNanos();
+        }
+        mScroller.resume();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        mScroller.pause();
+        //不能等到下一帧了，立即分发
+        dispatchPendingChange();
+        super.onDetachedFromWindow();
+    }
+
     @Override
     public boolean onTouchEvent(MotionEvent event) {
         if (!isEnabled() || getViewAdapter() == null) {
@@ -215,8 +352,9 @@ public class WheelView extends View {
                         distance -= getItemHeight() / 2;
                     }
                     int items = distance / getItemHeight();
-                    if (items != 0 && isValidItemIndex(mCurrentItem + items)) {
-                        notifyClickListenersAboutClick(mCurrentItem + items);
+                    int item = mEngine.getCurrentItem() + items;
+                    if (items != 0 && isValidItemIndex(item)) {
+                        notifyClickListenersAboutClick(item);
                     }
                 }
                 break;
@@ -229,63 +367,169 @@ public class WheelView extends View {
      *
      * @param delta the scrolling value
      */
-    private void doScroll(int delta) {
-        mScrollingOffset += delta;
+    private void doScroll(float delta) {
+        int old = mEngine.getCurrentItem();
+        if (mEngine.scroll(delta, getItemHeight(), getHeight(), getItemsCount())) {
+            onCurrentItemChanged(old);
+        } else {
+            invalidate();
+        }
+    }
 
-        int itemHeight = getItemHeight();
-        int count = mScrollingOffset / itemHeight;
+    /**
+     * Enables trace sections around measuring, rebuilding, recycling, binding and scrolling the wheel.
+     * Sections are named with the wheel id and the adapter class, and shown in systrace and Perfetto from API 18.
+     *
+     * @param enabled true to record trace sections
+     */
+    public void setTracingEnabled(boolean enabled) {
+        if (isTracingEnabled != enabled) {
+            isTracingEnabled = enabled;
+            updateTraceSections();
+        }
+    }
 
-        int pos = mCurrentItem - count;
-        int itemCount = mViewAdapter.getItemsCount();
+    @Override
+    public void setId(int id) {
+        super.setId(id);
+        updateTraceSections();
+    }
 
-        int fixPos = mScrollingOffset % itemHeight;
-        if (Math.abs(fixPos) <= itemHeight / 2) {
-            fixPos = 0;
+    /**
+     * Names the trace sections after the wheel id and the adapter class.
+     * Names are built once here, so tracing doesn't allocate.
+     */
+    private void updateTraceSections() {
+        if (!isTracingEnabled) {
+            mTraceSections = null;
+            mScroller.setTraceSection(null);
+            return;
         }
-        if (isCyclic && itemCount > 0) {
-            if (fixPos > 0) {
-                pos--;
-                count++;
-            } else if (fixPos < 0) {
-                pos++;
-                count--;
-            }
-            // fix position by rotating
-            while (pos < 0) {
-                pos += itemCount;
-            }
-            pos %= itemCount;
-        } else {
-            //
-            if (pos < 0) {
-                count = mCurrentItem;
-                pos = 0;
-            } else if (pos >= itemCount) {
-                count = mCurrentItem - itemCount + 1;
-                pos = itemCount - 1;
-            } else if (pos > 0 && fixPos > 0) {
-                pos--;
-                count++;
-            } else if (pos < itemCount - 1 && fixPos < 0) {
-                pos++;
-                count--;
-            }
-        }
-
-        int offset = mScrollingOffset;
-        if (pos != mCurrentItem) {
-            setCurrentItem(pos, false);
+        String id;
+        if (getId() == NO_ID) {
+            id = "no_id";
         } else {
-            invalidate();
+            try {
+                id = getResources().getResourceEntryName(getId());
+            } catch (Resources.NotFoundException e) {
+                id = "0x" + Integer.toHexString(getId());
+            }
         }
+        String adapter = mViewAdapter != null ? mViewAdapter.getClass().getSimpleName() : "null";
+        String[] sections = new String[TRACE_STEPS.length];
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = WheelTrace.sectionName("WheelView[" + id + "|" + adapter + "] " + TRACE_STEPS[i]);
+        }
+        mTraceSections = sections;
+        mScroller.setTraceSection(sections[TRACE_SCROLLER_FRAME]);
+    }
 
-        // update offset
-        mScrollingOffset = offset - count * itemHeight;
-        if (mScrollingOffset > getHeight()) {
-            mScrollingOffset = mScrollingOffset % getHeight() + getHeight();
+    /**
+     * Begins the trace section of a step, if tracing is enabled
+     *
+     * @param step the step, one of the TRACE_ constants
+     */
+    void traceBegin(int step) {
+        if (mTraceSections != null) {
+            WheelTrace.beginSection(mTraceSections[step]);
         }
     }
 
+    /**
+     * Ends the trace section begun by {@link #traceBegin(int)}
+     */
+    void traceEnd() {
+        if (mTraceSections != null) {
+            WheelTrace.endSection();
+        }
+    }
+
+    /**
+     * Enables the collection of performance counters. When disabled, nothing is measured or recorded.
+     *
+     * @param enabled true to collect counters, false to stop and discard them
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (enabled && mMetrics == null) {
+            mFrameIntervalNanos = getFrameIntervalNanos();
+            restartMetrics();
+        } else if (!enabled) {
+            mMetrics = null;
+        }
+    }
+
+    /**
+     * Checks whether performance counters are collected
+     *
+     * @return true if enabled
+     */
+    public boolean isMetricsEnabled() {
+        return mMetrics != null;
+    }
+
+    /**
+     * Gets a snapshot of the performance counters collected since they were enabled or reset
+     *
+     * @return the counters, or null if they are not enabled
+     */
+    @Nullable
+    public WheelMetrics getMetrics() {
+        if (mMetrics == null) {
+            return null;
+        }
+        mMetrics.setRecycleCounts(mRecycle.getHitCount() - mMetricsRecycleHits, mRecycle.getMissCount() - mMetricsRecycleMisses);
+        return new WheelMetrics(mMetrics);
+    }
+
+    /**
+     * Resets the performance counters, if they are enabled
+     */
+    public void resetMetrics() {
+        if (mMetrics != null) {
+            restartMetrics();
+        }
+    }
+
+    /**
+     * Starts collecting counters from zero
+     */
+    private void restartMetrics() {
+        mMetrics = new WheelMetrics();
+        mMetricsRecycleHits = mRecycle.getHitCount();
+        mMetricsRecycleMisses = mRecycle.getMissCount();
+    }
+
+    /**
+     * Gets the frame interval of the display the wheel is shown on
+     *
+     * @return the interval in nanoseconds
+     */
+    private long getFrameIntervalNanos() {
+        float refreshRate = 60;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1 && getDisplay() != null) {
+            refreshRate = getDisplay().getRefreshRate();
+        }
+        return (long) (1000000000L / Math.max(refreshRate, 1));
+    }
+
+    /**
+     * Sets the friction of flings. Higher friction makes flings shorter.
+     *
+     * @param friction the friction, {@link android.view.ViewConfiguration#getScrollFriction()} by default
+     */
+    public void setFlingFriction(float friction) {
+        mScroller.setFriction(friction);
+    }
+
+    /**
+     * Sets the max velocity of flings
+     *
+     * @param velocity the max velocity in pixels per second
+     */
+    public void setMaxFlingVelocity(int velocity) {
+        mScroller.setMaxFlingVelocity(velocity);
+    }
+
     /**
      * Stops scrolling
      */
@@ -300,8 +544,28 @@ public class WheelView extends View {
      * @param time          scrolling duration
      */
     public void scroll(int itemsToScroll, int time) {
-        int distance = itemsToScroll * getItemHeight() - mScrollingOffset;
-        mScroller.scroll(distance, time);
+        int itemHeight = getItemHeight();
+        long items = itemsToScroll;
+        long animatedItems = mEngine.clampScrollItems(items, itemHeight);
+        if (animatedItems != items && getItemsCount() > 0) {
+            // Too far for the scroller, jump over the extra items and animate the rest
+            int old = mEngine.getCurrentItem();
+            long position = old + items - animatedItems;
+            int index = mEngine.toIndex(position, getItemsCount());
+            if (animatedItems == 0) {
+                setCurrentItem(index, false);
+            } else {
+                //跳过的Item不通知，滚动中或滚动结束时从原来的Item开始通知
+                if (!isJumpPending) {
+                    isJumpPending = true;
+                    mJumpOldValue = old;
+                }
+                mEngine.setCurrentItem(index);
+                invalidate();
+            }
+            items = animatedItems;
+        }
+        mScroller.scroll(mEngine.getScrollDistance(items, itemHeight), time);
     }
 
     /**
@@ -316,27 +580,90 @@ public class WheelView extends View {
     /**
      * Sets view adapter. Usually new adapters contain different views, so
      * it needs to rebuild view by calling measure().
+     * A {@link PagedWheelAdapter} is added to the changing listeners while it is set, to follow the scrolling direction.
      *
      * @param viewAdapter the view adapter
      */
     public void setViewAdapter(WheelViewAdapter viewAdapter) {
         if (this.mViewAdapter != null) {
             this.mViewAdapter.unregisterDataSetObserver(mDataObserver);
+            if (this.mViewAdapter instanceof PagedWheelAdapter) {
+                removeChangingListener((PagedWheelAdapter) this.mViewAdapter);
+            }
         }
         this.mViewAdapter = viewAdapter;
         if (this.mViewAdapter != null) {
             this.mViewAdapter.registerDataSetObserver(mDataObserver);
+            if (this.mViewAdapter instanceof PagedWheelAdapter) {
+                addChangingListener((PagedWheelAdapter) this.mViewAdapter);
+            }
+            mRecycle.getRecycledViewPool().ensureViewTypeCount(WheelRecycle.getViewTypeCount(mViewAdapter));
         }
+        updateTraceSections();
         invalidateWheel(true);
     }
 
+    /**
+     * Sets the pool to cache item views in. Wheels showing interchangeable item views,
+     * e.g. the wheels of a date picker, can share one pool to reuse each other's views.
+     *
+     * @param pool the shared pool, or null to use a pool private to this wheel
+     */
+    public void setRecycledViewPool(@Nullable WheelRecycledViewPool pool) {
+        mRecycle.setRecycledViewPool(pool);
+        if (mViewAdapter != null) {
+            mRecycle.getRecycledViewPool().ensureViewTypeCount(WheelRecycle.getViewTypeCount(mViewAdapter));
+        }
+    }
+
+    /**
+     * Gets the pool item views are cached in
+     *
+     * @return the pool
+     */
+    public WheelRecycledViewPool getRecycledViewPool() {
+        return mRecycle.getRecycledViewPool();
+    }
+
+    /**
+     * Creates the item views of visible items ahead of time, on a shared background thread.
+     *
+     * @see #prewarmItemViews(Executor)
+     */
+    public void prewarmItemViews() {
+        prewarmItemViews(null);
+    }
+
+    /**
+     * Creates the item views of visible items ahead of time and adds them to the recycled view pool,
+     * so the first measure and draw only bind views. Call it after setting the adapter and current item,
+     * e.g. before showing a dialog. Does nothing in text mode.
+     *
+     * @param executor the executor to create views on, or null to use a shared background thread
+     * @see WheelRecycledViewPool#prewarm
+     */
+    public void prewarmItemViews(@Nullable Executor executor) {
+        if (mViewAdapter == null || mViewAdapter.getItemsCount() == 0 || isTextModeActive()) {
+            return;
+        }
+        int itemCount = mViewAdapter.getItemsCount();
+        int addItems = mVisibleItems / 2 + 1;
+        int first = mEngine.getCurrentItem() - addItems;
+        int count = addItems * 2 + 1;
+        if (!mEngine.isCyclic()) {
+            first = Math.max(first, 0);
+            count = Math.min(count, itemCount - first);
+        }
+        mRecycle.getRecycledViewPool().prewarm(mViewAdapter, mItemsLayout, first, count, executor);
+    }
+
     /**
      * Gets current value
      *
      * @return the current value
      */
     public int getCurrentItem() {
-        return mCurrentItem;
+        return mEngine.getCurrentItem();
     }
 
     /**
@@ -355,37 +682,72 @@ public class WheelView extends View {
      * @param animated the animation flag
      */
     public void setCurrentItem(int index, boolean animated) {
-        if (mViewAdapter == null || mViewAdapter.getItemsCount() == 0) {
+        int itemCount = getItemsCount();
+        index = mEngine.normalizeIndex(index, itemCount);
+        if (index < 0) {
             return; // throw?
         }
-
-        int itemCount = mViewAdapter.getItemsCount();
-        if (index < 0 || index >= itemCount) {
-            if (isCyclic) {
-                while (index < 0) {
-                    index += itemCount;
-                }
-                index %= itemCount;
+        if (index != mEngine.getCurrentItem()) {
+            if (animated) {
+                scroll(mEngine.distanceTo(index, itemCount), 0);
             } else {
-                return; // throw?
+                int old = mEngine.getCurrentItem();
+                mEngine.setCurrentItem(index);
+                onCurrentItemChanged(old);
             }
         }
-        if (index != mCurrentItem) {
-            if (animated) {
-                int itemsToScroll = index - mCurrentItem;
-                if (isCyclic) {
-                    int scroll = itemCount + Math.min(index, mCurrentItem) - Math.max(index, mCurrentItem);
-                    if (scroll < Math.abs(itemsToScroll)) {
-                        itemsToScroll = itemsToScroll < 0 ? scroll : -scroll;
-                    }
-                }
-                scroll(itemsToScroll, 0);
-            } else {
-                mScrollingOffset = 0;
-                int old = mCurrentItem;
-                mCurrentItem = index;
-                notifyChangingListeners(old, mCurrentItem);
-                invalidate();
+    }
+
+    /**
+     * Notifies the change of current item, and redraws the wheel
+     *
+     * @param old the previous current item
+     */
+    private void onCurrentItemChanged(int old) {
+        int current = mEngine.getCurrentItem();
+        if (isJumpPending) {
+            isJumpPending = false;
+            old = mJumpOldValue;
+        }
+        if (old != current) {
+            notifyChangingListeners(old, current);
+        }
+        if (!isScrollingPerformed) {
+            dispatchPendingChange();
+            notifySettledListeners(current);
+        }
+        invalidate();
+    }
+
+    /**
+     * Notifies the change of current item after the adapter inserted or removed items.
+     * When the selected item is removed and another item takes its index, only the settled value is notified.
+     *
+     * @param old         the current item before the change
+     * @param itemRemoved true if the selected item was removed, so another item is selected even at the same index
+     */
+    private void onSelectedItemMoved(int old, boolean itemRemoved) {
+        int current = mEngine.getCurrentItem();
+        if (current == old && !itemRemoved) {
+            return;
+        }
+        if (current != old) {
+            notifyChangingListeners(old, current);
+        }
+        if (!isScrollingPerformed) {
+            dispatchPendingChange();
+            notifySettledListeners(current);
+        }
+    }
+
+    /**
+     * Notifies the change of current item by a jump of {@link #scroll}, if no change was notified since
+     */
+    private void dispatchJump() {
+        if (isJumpPending) {
+            isJumpPending = false;
+            if (mJumpOldValue != mEngine.getCurrentItem()) {
+                notifyChangingListeners(mJumpOldValue, mEngine.getCurrentItem());
             }
         }
     }
@@ -396,13 +758,17 @@ public class WheelView extends View {
      * @param clearCaches if true then cached views will be clear
      */
     public void invalidateWheel(boolean clearCaches) {
+        mTextRenderer.clear();
+        mWidestItemIndex = -1;
+        mSelectedView = null;
         if (clearCaches) {
+            mWidestItemView = null;
             mRecycle.clearAll();
             mItemsLayout.removeAllViews();
-            mScrollingOffset = 0;
+            mEngine.setScrollingOffset(0);
         } else {
             // cache all items
-            mRecycle.recycleItems(mItemsLayout, mFirstItem, new ItemsRange());
+            mRecycle.recycleItems(mItemsLayout, mFirstItem, mEngine.getEmptyRange());
         }
         invalidate();
     }
@@ -414,10 +780,21 @@ public class WheelView extends View {
         int heightMode = MeasureSpec.getMode(heightMeasureSpec);
         int widthSize = MeasureSpec.getSize(widthMeasureSpec);
         int heightSize = MeasureSpec.getSize(heightMeasureSpec);
-        buildViewForMeasuring();
+        traceBegin(TRACE_MEASURE);
+        //文字模式或固定Item尺寸时，测量不需要创建Item View
+        boolean measureItems = !isTextModeActive() && !isFixedItemSize();
+        if (measureItems) {
+            traceBegin(TRACE_BUILD_FOR_MEASURING);
+            buildViewForMeasuring();
+            traceEnd();
+        }
         int width = calculateWidth(widthSize, widthMode);
+        if (measureItems) {
+            measureItemsLayout(width);
+        }
         int height = calculateHeight(heightSize, heightMode);
         setMeasuredDimension(width, height);
+        traceEnd();
     }
 
     /**
@@ -428,9 +805,18 @@ public class WheelView extends View {
      * @return the calculated control width
      */
     private int calculateWidth(int widthSize, int mode) {
-        mItemsLayout.measure(MeasureSpec.makeMeasureSpec(widthSize, MeasureSpec.UNSPECIFIED),
-                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
-        int width = mItemsLayout.getMeasuredWidth();
+        int width;
+        if (mFixedItemWidth > 0) {
+            width = mFixedItemWidth;
+        } else if (isTextModeActive()) {
+            width = calculateTextWidth();
+        } else if (getWidestItemIndex() >= 0) {
+            width = measureWidestItem(widthSize);
+        } else {
+            mItemsLayout.measure(MeasureSpec.makeMeasureSpec(widthSize, MeasureSpec.UNSPECIFIED),
+                    MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+            width = mItemsLayout.getMeasuredWidth();
+        }
 
         int padding = getPaddingLeftCompat() + getPaddingRightCompat();
 
@@ -445,8 +831,88 @@ public class WheelView extends View {
                 width = widthSize;
             }
         }
+        return width;
+    }
+
+    /**
+     * Measures items layout to fit the control width
+     *
+     * @param width the control width
+     */
+    private void measureItemsLayout(int width) {
+        int padding = getPaddingLeftCompat() + getPaddingRightCompat();
         mItemsLayout.measure(MeasureSpec.makeMeasureSpec(width - padding, MeasureSpec.EXACTLY),
                 MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+    }
+
+    /**
+     * Calculates the widest label of visible text items
+     *
+     * @return the content width
+     */
+    private int calculateTextWidth() {
+        if (mViewAdapter == null || mViewAdapter.getItemsCount() == 0) {
+            return 0;
+        }
+        WheelTextAdapter adapter = (WheelTextAdapter) mViewAdapter;
+        int widest = getWidestItemIndex();
+        if (widest >= 0) {
+            return (int) Math.ceil(mTextRenderer.getLabelWidth(adapter, widest));
+        }
+        int count = mViewAdapter.getItemsCount();
+        float width = 0;
+        int addItems = mVisibleItems / 2;
+        int current = mEngine.getCurrentItem();
+        for (int i = current - addItems; i <= current + addItems; i++) {
+            if (!isValidItemIndex(i)) {
+                continue;
+            }
+            int index = WheelPositions.toIndex(i, count);
+            width = Math.max(width, mTextRenderer.getLabelWidth(adapter, index));
+        }
+        return (int) Math.ceil(width);
+    }
+
+    /**
+     * Gets the widest item declared by the adapter
+     *
+     * @return the item index, or -1 if the adapter doesn't know it
+     */
+    private int getWidestItemIndex() {
+        if (!(mViewAdapter instanceof WheelItemViewAdapter)) {
+            return -1;
+        }
+        int index = ((WheelItemViewAdapter) mViewAdapter).getWidestItemIndex();
+        return index < mViewAdapter.getItemsCount() ? index : -1;
+    }
+
+    /**
+     * Binds the widest item to a view kept for measuring, and measures it
+     *
+     * @param widthSize the input layout width
+     * @return the width of the widest item
+     */
+    private int measureWidestItem(int widthSize) {
+        int index = getWidestItemIndex();
+        if (mWidestItemView == null || mWidestItemIndex != index) {
+            View convertView = null;
+            if (mWidestItemView != null && WheelRecycle.getItemViewType(mViewAdapter, index) == (Integer) mWidestItemView.getTag(R.id.wheel_item_view_type)) {
+                convertView = mWidestItemView;
+            }
+            mWidestItemView = mViewAdapter.getItem(index, convertView, mItemsLayout);
+            if (mWidestItemView == null) {
+                return 0;
+            }
+            mWidestItemView.setTag(R.id.wheel_item_view_type, WheelRecycle.getItemViewType(mViewAdapter, index));
+            mWidestItemIndex = index;
+        }
+        mWidestItemView.measure(MeasureSpec.makeMeasureSpec(widthSize, MeasureSpec.UNSPECIFIED),
+                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+        int width = mWidestItemView.getMeasuredWidth();
+        LayoutParams params = mWidestItemView.getLayoutParams();
+        if (params instanceof MarginLayoutParams) {
+            width += ((MarginLayoutParams) params).leftMargin + ((MarginLayoutParams) params).rightMargin;
+        }
         return width;
     }
 
@@ -455,12 +921,18 @@ public class WheelView extends View {
         if (mode == MeasureSpec.EXACTLY) {
             height = heightSize;
         } else {
-            //使用第一个child的高度作为判断依据。外部使用时，应保证所有child高度是一致的
-            View childView = mItemsLayout.getChildAt(0);
-            if (childView != null) {
-                mItemHeight = childView.getMeasuredHeight();
+            int itemHeight;
+            if (mFixedItemHeight > 0 || isTextModeActive()) {
+                itemHeight = getItemHeight();
+            } else {
+                //使用第一个child的高度作为判断依据。外部使用时，应保证所有child高度是一致的
+                View childView = mItemsLayout.getChildAt(0);
+                if (childView != null) {
+                    mItemHeight = childView.getMeasuredHeight();
+                }
+                itemHeight = mItemHeight;
             }
-            int desired = mItemHeight * mVisibleItems + getPaddingTop() + getPaddingBottom();
+            int desired = itemHeight * mVisibleItems + getPaddingTop() + getPaddingBottom();
             height = Math.max(desired, getSuggestedMinimumHeight());
             if (mode == MeasureSpec.AT_MOST) {
                 height = Math.min(height, heightSize);
@@ -474,16 +946,85 @@ public class WheelView extends View {
      */
     private void buildViewForMeasuring() {
         // clear all items
-        mRecycle.recycleItems(mItemsLayout, mFirstItem, new ItemsRange());
+        mRecycle.recycleItems(mItemsLayout, mFirstItem, mEngine.getEmptyRange());
         // add views
         int addItems = mVisibleItems / 2;
-        for (int i = mCurrentItem + addItems; i >= mCurrentItem - addItems; i--) {
+        int current = mEngine.getCurrentItem();
+        for (int i = current + addItems; i >= current - addItems; i--) {
             if (addViewItem(i, true)) {
                 mFirstItem = i;
             }
         }
     }
 
+    /**
+     * Rebinds the views of specified items that are currently shown. Other views are left untouched.
+     *
+     * @param start the index of first changed item
+     * @param count the count of changed items
+     */
+    private void rebindItems(int start, int count) {
+        if (mViewAdapter == null || mViewAdapter.getItemsCount() == 0) {
+            return;
+        }
+        mTextRenderer.clear(start, count);
+        if (mWidestItemIndex >= start && mWidestItemIndex - start < count) {
+            mWidestItemIndex = -1;
+        }
+        int itemsCount = mViewAdapter.getItemsCount();
+        for (int i = 0; i < mItemsLayout.getChildCount(); i++) {
+            int position = mFirstItem + i;
+            if (!isValidItemIndex(position)) {
+                continue;
+            }
+            int index = WheelPositions.toIndex(position, itemsCount);
+            if (index >= start && index - start < count) {
+                rebindItem(i, position, index);
+            }
+        }
+        invalidate();
+    }
+
+    /**
+     * Binds the view in items layout to its item again. The view is reused if the adapter accepts it,
+     * otherwise it is replaced.
+     *
+     * @param child    the position of view in items layout
+     * @param position the item number
+     * @param index    the adapter index of the item
+     */
+    private void rebindItem(int child, int position, int index) {
+        View view = mItemsLayout.getChildAt(child);
+        int viewType = WheelRecycle.getItemViewType(mViewAdapter, index);
+        Object tag = view.getTag(R.id.wheel_item_view_type);
+        View newView = null;
+        if (tag instanceof Integer && (Integer) tag == viewType) {
+            long start = mMetrics != null ? System.nanoTime() : 0;
+            traceBegin(TRACE_GET_ITEM);
+            newView = mViewAdapter.getItem(index, view, mItemsLayout);
+            traceEnd();
+            if (mMetrics != null) {
+                mMetrics.recordBind(System.nanoTime() - start, view, newView);
+            }
+            if (newView == view) {
+                onItemViewBound(view);
+                return;
+            }
+            if (newView != null) {
+                newView.setTag(R.id.wheel_item_view_type, viewType);
+                onItemViewBound(newView);
+            }
+        }
+        mRecycle.recycleItem(mItemsLayout, child, position);
+        if (newView == null) {
+            newView = getItemView(position);
+        }
+        if (newView != null) {
+            applyFixedItemHeight(newView);
+            mItemsLayout.addView(newView, child);
+        }
+    }
+
     /**
      * Adds view for item to items layout
      *
@@ -494,6 +1035,7 @@ public class WheelView extends View {
     private boolean addViewItem(int index, boolean first) {
         View view = getItemView(index);
         if (view != null) {
+            applyFixedItemHeight(view);
             if (first) {
                 mItemsLayout.addView(view, 0);
             } else {
@@ -504,6 +1046,37 @@ public class WheelView extends View {
         return false;
     }
 
+    /**
+     * Forces the fixed item height on item view, if there is one
+     *
+     * @param view the item view
+     */
+    private void applyFixedItemHeight(View view) {
+        if (mFixedItemHeight > 0) {
+            ViewGroup.LayoutParams params = view.getLayoutParams();
+            if (params == null) {
+                view.setLayoutParams(new LinearLayout.LayoutParams(LayoutParams.MATCH_PARENT, mFixedItemHeight));
+            } else if (params.height != mFixedItemHeight) {
+                params.height = mFixedItemHeight;
+                view.setLayoutParams(params);
+            }
+        }
+    }
+
+    /**
+     * Discards the recorded drawing of item view, so it is recorded again on next draw
+     *
+     * @param view the item view
+     */
+    private static void invalidateItemDisplayList(View view) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Object displayList = view.getTag(R.id.wheel_item_display_list);
+            if (displayList != null) {
+                ((WheelDisplayList) displayList).invalidate();
+            }
+        }
+    }
+
     /**
      * Returns view for specified item
      *
@@ -516,15 +1089,33 @@ public class WheelView extends View {
             return null;
         }
         int count = mViewAdapter.getItemsCount();
+        View view;
+        View convertView;
+        int viewType;
+        long start = mMetrics != null ? System.nanoTime() : 0;
         if (!isValidItemIndex(index)) {
-            return mViewAdapter.getEmptyItem(mRecycle.getEmptyItem(), mItemsLayout);
+            viewType = WheelRecycle.ITEM_VIEW_TYPE_EMPTY;
+            convertView = mRecycle.getEmptyItem();
+            traceBegin(TRACE_GET_EMPTY_ITEM);
+            view = mViewAdapter.getEmptyItem(convertView, mItemsLayout);
+            traceEnd();
         } else {
-            while (index < 0) {
-                index = count + index;
-            }
+            index = WheelPositions.toIndex(index, count);
+            viewType = WheelRecycle.getItemViewType(mViewAdapter, index);
+            convertView = mRecycle.getItem(viewType);
+            traceBegin(TRACE_GET_ITEM);
+            view = mViewAdapter.getItem(index, convertView, mItemsLayout);
+            traceEnd();
+        }
+        if (mMetrics != null) {
+            mMetrics.recordBind(System.nanoTime() - start, convertView, view);
         }
-        index %= count;
-        return mViewAdapter.getItem(index, mRecycle.getItem(), mItemsLayout);
+        if (view != null) {
+            //记录View类型，回收时放入对应类型的缓存
+            view.setTag(R.id.wheel_item_view_type, viewType);
+            onItemViewBound(view);
+        }
+        return view;
     }
 
     /**
@@ -534,12 +1125,42 @@ public class WheelView extends View {
      * @return true if item index is not out of bounds or the wheel is cyclic
      */
     private boolean isValidItemIndex(int index) {
-        return mViewAdapter != null && mViewAdapter.getItemsCount() > 0 &&
-                (isCyclic || index >= 0 && index < mViewAdapter.getItemsCount());
+        return mEngine.isValidPosition(index, getItemsCount());
+    }
+
+    /**
+     * Gets count of adapter items
+     *
+     * @return the count of items, 0 if there is no adapter
+     */
+    private int getItemsCount() {
+        return mViewAdapter != null ? mViewAdapter.getItemsCount() : 0;
+    }
+
+    /**
+     * Checks whether both item width and height are fixed
+     *
+     * @return true if the item size is fixed
+     */
+    private boolean isFixedItemSize() {
+        return mFixedItemWidth > 0 && mFixedItemHeight > 0;
+    }
+
+    /**
+     * Checks whether items are drawn as text directly on canvas
+     *
+     * @return true if text mode is on and the adapter is a {@link WheelTextAdapter}
+     */
+    private boolean isTextModeActive() {
+        return isTextMode && mViewAdapter instanceof WheelTextAdapter;
     }
 
     @Override
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        if (changed && !isTextModeActive() && isFixedItemSize()) {
+            //onMeasure跳过了Item测量，尺寸变化时在这里补上
+            measureItemsLayout(r - l);
+        }
         layout(r - l, b - t);
     }
 
@@ -556,6 +1177,23 @@ public class WheelView extends View {
 
     @Override
     protected void onDraw(Canvas canvas) {
+        long start = mMetrics != null ? System.nanoTime() : 0;
+        drawWheel(canvas);
+        if (mMetrics != null) {
+            long end = System.nanoTime();
+            mMetrics.recordDraw(end - start);
+            if (isScrollingPerformed) {
+                mMetrics.recordScrollFrame();
+            }
+        }
+    }
+
+    /**
+     * Draws the wheel
+     *
+     * @param canvas the canvas
+     */
+    private void drawWheel(Canvas canvas) {
         super.onDraw(canvas);
         int centerTop = getHeight() / 2 - getItemHeight() / 2;
         int centerBottom = getHeight() / 2 + getItemHeight() / 2;
@@ -564,70 +1202,315 @@ public class WheelView extends View {
         int drawAreaTop = getPaddingTop();
         int drawAreaBottom = getHeight() - getPaddingBottom();
 
-        if (mViewAdapter != null && mViewAdapter.getItemsCount() > 0) {
+        boolean hasItems = mViewAdapter != null && mViewAdapter.getItemsCount() > 0;
+        if (hasItems && !isTextModeActive()) {
             updateView();
+        }
+        boolean useLayers = prepareLayers(canvas, hasItems, drawAreaLeft, drawAreaTop, drawAreaRight, drawAreaBottom, centerTop, centerBottom);
+
+        if (hasItems) {
 
             //绘制Center背景
             if (mCenterBackground != null) {
-                mTempRect.set(drawAreaLeft, centerTop, drawAreaRight, centerBottom);
-                mCenterBackground.setBounds(mTempRect);
-                mCenterBackground.draw(canvas);
+                if (useLayers) {
+                    mBackgroundLayer.draw(canvas);
+                } else {
+                    drawCenterBackground(canvas, drawAreaLeft, drawAreaRight, centerTop, centerBottom);
+                }
             }
 
             //绘制Item
-            int save = canvas.saveLayer(drawAreaLeft, drawAreaTop, drawAreaRight, drawAreaBottom, mHighlightPaint, Canvas.ALL_SAVE_FLAG);
-            mHighlightPaint.setXfermode(null);
-            canvas.save();
-            int top = (mCurrentItem - mFirstItem) * getItemHeight() + (getItemHeight() - getHeight()) / 2;
-            canvas.translate(drawAreaLeft, -top + mScrollingOffset);
-            mItemsLayout.draw(canvas);
-            canvas.restore();
-
+            int save = canvas.save();
+            canvas.clipRect(drawAreaLeft, drawAreaTop, drawAreaRight, drawAreaBottom);
             if (mDrawHighlight) {
-                mHighlightPaint.setXfermode(mXfermode);
+                //中心区域外使用正常颜色绘制
+                canvas.save();
+                mTempRect.set(drawAreaLeft, centerTop, drawAreaRight, centerBottom);
+                clipOutRect(canvas, mTempRect);
+                drawItems(canvas, drawAreaLeft, drawAreaRight);
+                canvas.restore();
+
+                //中心区域内使用高亮色绘制
                 mTempRect.set(drawAreaLeft, centerTop, drawAreaRight, centerBottom);
                 canvas.clipRect(mTempRect);
-                canvas.drawRect(mTempRect, mHighlightPaint);
-                mHighlightPaint.setXfermode(null);
+                if (isTextModeActive()) {
+                    //文字模式直接切换文字颜色，不需要离屏缓冲
+                    int textColor = mTextRenderer.getTextColor();
+                    mTextRenderer.setTextColor(mHighlightPaint.getColor());
+                    drawItems(canvas, drawAreaLeft, drawAreaRight);
+                    mTextRenderer.setTextColor(textColor);
+                } else {
+                    //View模式只在中心区域使用离屏缓冲
+                    canvas.saveLayer(drawAreaLeft, centerTop, drawAreaRight, centerBottom, null, Canvas.ALL_SAVE_FLAG);
+                    drawItems(canvas, drawAreaLeft, drawAreaRight);
+                    mHighlightPaint.setXfermode(mXfermode);
+                    canvas.drawRect(mTempRect, mHighlightPaint);
+                    mHighlightPaint.setXfermode(null);
+                }
+            } else {
+                drawItems(canvas, drawAreaLeft, drawAreaRight);
             }
-
             canvas.restoreToCount(save);
+        }
+
+        //绘制Divider，Center前景和阴影
+        if (useLayers) {
+            mOverlayLayer.draw(canvas);
+        } else {
+            drawOverlay(canvas, hasItems, drawAreaLeft, drawAreaTop, drawAreaRight, drawAreaBottom, centerTop, centerBottom);
+        }
+    }
 
+    /**
+     * Records the decorations into display lists if they changed since the last recording
+     *
+     * @return true if the decorations are drawn from display lists
+     */
+    private boolean prepareLayers(Canvas canvas, boolean hasItems, int left, int top, int right, int bottom, int centerTop, int centerBottom) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q || !canvas.isHardwareAccelerated()) {
+            return false;
+        }
+        if (mBackgroundLayer == null) {
+            mBackgroundLayer = new WheelDisplayList("WheelView background");
+            mOverlayLayer = new WheelDisplayList("WheelView overlay");
+        }
+        if (isLayersDirty || !mBackgroundLayer.isValid() || !mOverlayLayer.isValid()
+                || isLayerHasItems != hasItems || mLayerCenterTop != centerTop || mLayerCenterBottom != centerBottom
+                || mLayerBounds.left != left || mLayerBounds.top != top || mLayerBounds.right != right || mLayerBounds.bottom != bottom) {
+            isLayersDirty = false;
+            isLayerHasItems = hasItems;
+            mLayerCenterTop = centerTop;
+            mLayerCenterBottom = centerBottom;
+            mLayerBounds.set(left, top, right, bottom);
+
+            Canvas recordingCanvas = mBackgroundLayer.beginRecording(getWidth(), getHeight());
+            if (mCenterBackground != null) {
+                drawCenterBackground(recordingCanvas, left, right, centerTop, centerBottom);
+            }
+            mBackgroundLayer.endRecording();
+
+            recordingCanvas = mOverlayLayer.beginRecording(getWidth(), getHeight());
+            drawOverlay(recordingCanvas, hasItems, left, top, right, bottom, centerTop, centerBottom);
+            mOverlayLayer.endRecording();
+        }
+        return true;
+    }
+
+    /**
+     * Draws the background of center item
+     */
+    private void drawCenterBackground(Canvas canvas, int left, int right, int centerTop, int centerBottom) {
+        mTempRect.set(left, centerTop, right, centerBottom);
+        mCenterBackground.setBounds(mTempRect);
+        mCenterBackground.draw(canvas);
+    }
+
+    /**
+     * Draws the decorations above items: dividers, the foreground of center item and shadows
+     */
+    private void drawOverlay(Canvas canvas, boolean hasItems, int left, int top, int right, int bottom, int centerTop, int centerBottom) {
+        if (hasItems) {
             //绘制Divider
             if (mDividerDrawable != null) {
-                mTempRect.set(drawAreaLeft, centerTop, drawAreaRight, centerTop + mDividerDrawable.getIntrinsicHeight());
+                mTempRect.set(left, centerTop, right, centerTop + mDividerDrawable.getIntrinsicHeight());
                 mDividerDrawable.setBounds(mTempRect);
                 mDividerDrawable.draw(canvas);
 
-                mTempRect.set(drawAreaLeft, centerBottom - mDividerDrawable.getIntrinsicHeight(), drawAreaRight, centerBottom);
+                mTempRect.set(left, centerBottom - mDividerDrawable.getIntrinsicHeight(), right, centerBottom);
                 mDividerDrawable.setBounds(mTempRect);
                 mDividerDrawable.draw(canvas);
             }
 
             //绘制Center前景
             if (mCenterForeground != null) {
-                mTempRect.set(drawAreaLeft, centerTop, drawAreaRight, centerBottom);
+                mTempRect.set(left, centerTop, right, centerBottom);
                 mCenterForeground.setBounds(mTempRect);
                 mCenterForeground.draw(canvas);
             }
         }
 
         if (isDrawShadows) {
-            mTopShadow.setBounds(drawAreaLeft, drawAreaTop, drawAreaRight, centerTop);
+            mTopShadow.setBounds(left, top, right, centerTop);
             mTopShadow.draw(canvas);
-            mBottomShadow.setBounds(drawAreaLeft, centerBottom, drawAreaRight, drawAreaBottom);
+            mBottomShadow.setBounds(left, centerBottom, right, bottom);
             mBottomShadow.draw(canvas);
         }
     }
 
+    /**
+     * Draws visible items
+     *
+     * @param canvas the canvas
+     * @param left   the left of draw area
+     * @param right  the right of draw area
+     */
+    private void drawItems(Canvas canvas, int left, int right) {
+        if (isTextModeActive()) {
+            drawTextItems(canvas, left, right);
+        } else {
+            canvas.save();
+            int top = (mEngine.getCurrentItem() - mFirstItem) * getItemHeight() + (getItemHeight() - getHeight()) / 2;
+            canvas.translate(left, -top + mEngine.getPixelOffset());
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && canvas.isHardwareAccelerated()) {
+                drawItemDisplayLists(canvas);
+            } else {
+                mItemsLayout.draw(canvas);
+            }
+            canvas.restore();
+        }
+    }
+
+    /**
+     * Draws item views from their display lists. A row is recorded again only if it was rebound or invalidated,
+     * otherwise it is just replayed at its position.
+     *
+     * @param canvas the hardware accelerated canvas, translated to the items layout
+     */
+    @RequiresApi(Build.VERSION_CODES.Q)
+    private void drawItemDisplayLists(Canvas canvas) {
+        for (int i = 0; i < mItemsLayout.getChildCount(); i++) {
+            View child = mItemsLayout.getChildAt(i);
+            if (child.getVisibility() != VISIBLE) {
+                continue;
+            }
+            WheelDisplayList displayList = (WheelDisplayList) child.getTag(R.id.wheel_item_display_list);
+            if (displayList == null) {
+                displayList = new WheelDisplayList("WheelView item");
+                child.setTag(R.id.wheel_item_display_list, displayList);
+            }
+            if (!displayList.isValid() || isViewDirty(child)
+                    || displayList.getWidth() != child.getWidth() || displayList.getHeight() != child.getHeight()) {
+                Canvas recordingCanvas = displayList.beginRecording(child.getWidth(), child.getHeight());
+                child.draw(recordingCanvas);
+                displayList.endRecording();
+            }
+            displayList.setPosition(child.getLeft(), child.getTop());
+            displayList.draw(canvas);
+        }
+    }
+
+    /**
+     * Checks whether the view or any of its children is invalidated. Item views are not attached to a window,
+     * so the invalidation of a child doesn't reach its parent.
+     *
+     * @param view the view
+     * @return true if the view needs to be drawn again
+     */
+    private static boolean isViewDirty(View view) {
+        if (view.isDirty()) {
+            return true;
+        }
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                if (isViewDirty(group.getChildAt(i))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Excludes the rect from the current clip
+     *
+     * @param canvas the canvas
+     * @param rect   the rect to exclude
+     */
+    @SuppressWarnings("deprecation")
+    private static void clipOutRect(Canvas canvas, Rect rect) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            canvas.clipOutRect(rect);
+        } else {
+            canvas.clipRect(rect, Region.Op.DIFFERENCE);
+        }
+    }
+
+    /**
+     * Draws labels of visible items directly on canvas
+     *
+     * @param canvas the canvas
+     * @param left   the left of draw area
+     * @param right  the right of draw area
+     */
+    private void drawTextItems(Canvas canvas, int left, int right) {
+        final ItemsRange range = getItemsRange();
+        if (range == null) return;
+
+        WheelTextAdapter adapter = (WheelTextAdapter) mViewAdapter;
+        int count = mViewAdapter.getItemsCount();
+        int itemHeight = getItemHeight();
+        mTextRenderer.setMaxWidth(right - left);
+        int top = (getHeight() - itemHeight) / 2 + (range.getFirst() - mEngine.getCurrentItem()) * itemHeight + mEngine.getPixelOffset();
+        for (int i = range.getFirst(); i <= range.getLast(); i++, top += itemHeight) {
+            if (!isValidItemIndex(i)) {
+                continue;
+            }
+            int index = WheelPositions.toIndex(i, count);
+            mTextRenderer.drawItem(canvas, adapter, index, left, top, right, top + itemHeight);
+        }
+    }
+
     /**
      * Updates view. Rebuilds items and label if necessary, recalculate items sizes.
      */
     private void updateView() {
-        if (rebuildItems()) {
-            calculateWidth(getWidth(), MeasureSpec.EXACTLY);
+        traceBegin(TRACE_UPDATE_VIEW);
+        long start = mMetrics != null ? System.nanoTime() : 0;
+        traceBegin(TRACE_REBUILD_ITEMS);
+        boolean rebuilt = rebuildItems();
+        traceEnd();
+        if (mMetrics != null) {
+            mMetrics.recordRebuild(System.nanoTime() - start);
+        }
+        if (rebuilt) {
+            measureItemsLayout(getWidth());
             layout(getWidth(), getHeight());
         }
+        updateSelectedItem();
+        traceEnd();
+    }
+
+    /**
+     * Moves the selection state from the previous center item to the current one.
+     * Only these two items are updated, and only when the center item changes.
+     */
+    private void updateSelectedItem() {
+        View center = null;
+        int current = mEngine.getCurrentItem();
+        int child = current - mFirstItem;
+        if (isValidItemIndex(current) && child >= 0 && child < mItemsLayout.getChildCount()) {
+            center = mItemsLayout.getChildAt(child);
+        }
+        if (center == mSelectedView && mSelectedItem == current) {
+            return;
+        }
+        WheelItemViewAdapter adapter = mViewAdapter instanceof WheelItemViewAdapter ? (WheelItemViewAdapter) mViewAdapter : null;
+        int count = mViewAdapter.getItemsCount();
+        int selectedChild = mSelectedItem - mFirstItem;
+        if (adapter != null && mSelectedView != null && selectedChild >= 0 && selectedChild < mItemsLayout.getChildCount()
+                && mItemsLayout.getChildAt(selectedChild) == mSelectedView) {
+            //仍然显示同一个Item，取消选中状态
+            adapter.onBindSelectionState(mSelectedView, WheelPositions.toIndex(mSelectedItem, count), false);
+        }
+        mSelectedView = center;
+        mSelectedItem = current;
+        if (adapter != null && center != null) {
+            adapter.onBindSelectionState(center, WheelPositions.toIndex(current, count), true);
+        }
+    }
+
+    /**
+     * Called after the adapter bound the view. A bound view is not selected any more.
+     *
+     * @param view the bound view
+     */
+    private void onItemViewBound(View view) {
+        if (view == mSelectedView) {
+            mSelectedView = null;
+        }
+        //重新绑定了数据，需要重新录制
+        invalidateItemDisplayList(view);
     }
 
     /**
@@ -676,6 +1559,12 @@ public class WheelView extends View {
      * @return the item height
      */
     private int getItemHeight() {
+        if (mFixedItemHeight > 0) {
+            return mFixedItemHeight;
+        }
+        if (isTextModeActive()) {
+            return mTextRenderer.getItemHeight();
+        }
         if (mItemHeight != 0) {
             return mItemHeight;
         }
@@ -694,30 +1583,7 @@ public class WheelView extends View {
      */
     @Nullable
     private ItemsRange getItemsRange() {
-        if (getItemHeight() == 0) {
-            return null;
-        }
-
-        int first = mCurrentItem;
-        int count = 1;
-
-        while (count * getItemHeight() < getHeight()) {
-            first--;
-            count += 2; // top + bottom items
-        }
-
-        if (mScrollingOffset != 0) {
-            if (mScrollingOffset > 0) {
-                first--;
-            }
-            count++;
-
-            // process empty items above the first or below the second
-            int emptyItems = mScrollingOffset / getItemHeight();
-            first -= emptyItems;
-            count += Math.asin(emptyItems);
-        }
-        return new ItemsRange(first, count);
+        return mEngine.getItemsRange(getItemHeight(), getHeight());
     }
 
     private int getPaddingLeftCompat() {
@@ -762,7 +1628,7 @@ public class WheelView extends View {
      * @return true if wheel is cyclic
      */
     public boolean isCyclic() {
-        return isCyclic;
+        return mEngine.isCyclic();
     }
 
     /**
@@ -771,15 +1637,89 @@ public class WheelView extends View {
      * @param isCyclic the flag to set
      */
     public void setCyclic(boolean isCyclic) {
-        this.isCyclic = isCyclic;
+        mEngine.setCyclic(isCyclic);
+    }
+
+    /**
+     * Tests if items are drawn as text directly on canvas
+     *
+     * @return true if text mode is on
+     */
+    public boolean isTextMode() {
+        return isTextMode;
+    }
+
+    /**
+     * Set whether items should be drawn as text directly on canvas, without creating item views.
+     * Only works with adapters implementing {@link WheelTextAdapter}, other adapters still use item views.
+     *
+     * @param textMode the flag to set
+     */
+    public void setTextMode(boolean textMode) {
+        if (isTextMode != textMode) {
+            isTextMode = textMode;
+            invalidateWheel(true);
+            requestLayout();
+        }
+    }
+
+    /**
+     * Set the text size of items in text mode
+     *
+     * @param size the text size in pixels
+     */
+    public void setItemTextSize(float size) {
+        mTextRenderer.setTextSize(size);
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Set the text color of items in text mode
+     *
+     * @param color the text color
+     */
+    public void setItemTextColor(@ColorInt int color) {
+        mTextRenderer.setTextColor(color);
+        invalidate();
+    }
+
+    /**
+     * Set the typeface of items in text mode
+     *
+     * @param typeface the typeface
+     */
+    public void setItemTypeface(@Nullable Typeface typeface) {
+        mTextRenderer.setTypeface(typeface);
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Set a fixed item size. When both width and height are fixed, measuring the wheel
+     * takes constant time and doesn't touch item views.
+     *
+     * @param width  the content width of items in pixels, 0 to measure it from items
+     * @param height the height of items in pixels, 0 to measure it from items
+     */
+    public void setFixedItemSize(int width, int height) {
+        if (mFixedItemWidth != width || mFixedItemHeight != height) {
+            mFixedItemWidth = width;
+            mFixedItemHeight = height;
+            mItemHeight = 0;
+            invalidateWheel(true);
+            requestLayout();
+        }
     }
 
     public void setCenterBackground(Drawable drawable) {
         this.mCenterBackground = drawable;
+        invalidateLayers();
     }
 
     public void setCenterForeground(Drawable drawable) {
         this.mCenterForeground = drawable;
+        invalidateLayers();
     }
 
     /**
@@ -798,6 +1738,7 @@ public class WheelView extends View {
      */
     public void setDrawShadows(boolean drawShadows) {
         this.isDrawShadows = drawShadows;
+        invalidateLayers();
     }
 
     /**
@@ -811,6 +1752,7 @@ public class WheelView extends View {
         int[] shadowColors = new int[]{start, middle, end};
         mTopShadow = new GradientDrawable(Orientation.TOP_BOTTOM, shadowColors);
         mBottomShadow = new GradientDrawable(Orientation.BOTTOM_TOP, shadowColors);
+        invalidateLayers();
     }
 
     /**
@@ -836,6 +1778,15 @@ public class WheelView extends View {
 
     public void setDivider(@Nullable Drawable drawable) {
         mDividerDrawable = drawable;
+        invalidateLayers();
+    }
+
+    /**
+     * Records the decorations again on next draw. Call it after changing a decoration drawable in place.
+     */
+    public void invalidateLayers() {
+        isLayersDirty = true;
+        invalidate();
     }
 
     public void setDrawHighlight(boolean drawHighlight) {
@@ -852,7 +1803,7 @@ public class WheelView extends View {
      * @param listener the listener
      */
     public void addChangingListener(OnWheelChangedListener listener) {
-        mChangingListeners.add(listener);
+        mChangingListeners = appendListener(mChangingListeners, listener);
     }
 
     /**
@@ -861,7 +1812,29 @@ public class WheelView extends View {
      * @param listener the listener
      */
     public void removeChangingListener(OnWheelChangedListener listener) {
-        mChangingListeners.remove(listener);
+        mChangingListeners = removeListener(mChangingListeners, listener);
+    }
+
+    /**
+     * Gets how changing listeners are notified
+     *
+     * @return {@link #DISPATCH_IMMEDIATE} or {@link #DISPATCH_PER_FRAME}
+     */
+    public int getChangeDispatchMode() {
+        return mChangeDispatchMode;
+    }
+
+    /**
+     * Sets how changing listeners are notified. With {@link #DISPATCH_PER_FRAME}, a fling passing many
+     * items notifies listeners at most once per frame, from the first old value to the last new value.
+     *
+     * @param mode {@link #DISPATCH_IMMEDIATE} or {@link #DISPATCH_PER_FRAME}
+     */
+    public void setChangeDispatchMode(int mode) {
+        if (mode != DISPATCH_PER_FRAME) {
+            dispatchPendingChange();
+        }
+        mChangeDispatchMode = mode;
     }
 
     /**
@@ -871,18 +1844,79 @@ public class WheelView extends View {
      * @param newValue the new wheel value
      */
     protected void notifyChangingListeners(int oldValue, int newValue) {
-        for (OnWheelChangedListener listener : mChangingListeners) {
+        if (mChangeDispatchMode == DISPATCH_PER_FRAME) {
+            if (!isChangePending) {
+                isChangePending = true;
+                mPendingOldValue = oldValue;
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                    postOnAnimation(mDispatchChangeRunnable);
+                } else {
+                    post(mDispatchChangeRunnable);
+                }
+            }
+            mPendingNewValue = newValue;
+            return;
+        }
+        OnWheelChangedListener[] listeners = mChangingListeners;
+        for (OnWheelChangedListener listener : listeners) {
             listener.onChanged(this, oldValue, newValue);
         }
     }
 
+    /**
+     * Notifies changing listeners of the coalesced change now, if one is waiting for the next frame
+     */
+    private void dispatchPendingChange() {
+        if (!isChangePending) {
+            return;
+        }
+        isChangePending = false;
+        removeCallbacks(mDispatchChangeRunnable);
+        if (mPendingOldValue != mPendingNewValue) {
+            OnWheelChangedListener[] listeners = mChangingListeners;
+            for (OnWheelChangedListener listener : listeners) {
+                listener.onChanged(this, mPendingOldValue, mPendingNewValue);
+            }
+        }
+    }
+
+    /**
+     * Adds wheel settled listener
+     *
+     * @param listener the listener
+     */
+    public void addSettledListener(OnWheelSettledListener listener) {
+        mSettledListeners = appendListener(mSettledListeners, listener);
+    }
+
+    /**
+     * Removes wheel settled listener
+     *
+     * @param listener the listener
+     */
+    public void removeSettledListener(OnWheelSettledListener listener) {
+        mSettledListeners = removeListener(mSettledListeners, listener);
+    }
+
+    /**
+     * Notifies settled listeners
+     *
+     * @param value the current item
+     */
+    protected void notifySettledListeners(int value) {
+        OnWheelSettledListener[] listeners = mSettledListeners;
+        for (OnWheelSettledListener listener : listeners) {
+            listener.onValueSettled(this, value);
+        }
+    }
+
     /**
      * Adds wheel scrolling listener
      *
      * @param listener the listener
      */
     public void addScrollingListener(OnWheelScrollListener listener) {
-        mScrollingListeners.add(listener);
+        mScrollingListeners = appendListener(mScrollingListeners, listener);
     }
 
     /**
@@ -891,14 +1925,15 @@ public class WheelView extends View {
      * @param listener the listener
      */
     public void removeScrollingListener(OnWheelScrollListener listener) {
-        mScrollingListeners.remove(listener);
+        mScrollingListeners = removeListener(mScrollingListeners, listener);
     }
 
     /**
      * Notifies listeners about starting scrolling
      */
     protected void notifyScrollingListenersAboutStart() {
-        for (OnWheelScrollListener listener : mScrollingListeners) {
+        OnWheelScrollListener[] listeners = mScrollingListeners;
+        for (OnWheelScrollListener listener : listeners) {
             listener.onScrollingStarted(this);
         }
     }
@@ -907,7 +1942,8 @@ public class WheelView extends View {
      * Notifies listeners about ending scrolling
      */
     protected void notifyScrollingListenersAboutEnd() {
-        for (OnWheelScrollListener listener : mScrollingListeners) {
+        OnWheelScrollListener[] listeners = mScrollingListeners;
+        for (OnWheelScrollListener listener : listeners) {
             listener.onScrollingFinished(this);
         }
     }
@@ -918,7 +1954,7 @@ public class WheelView extends View {
      * @param listener the listener
      */
     public void addClickingListener(OnWheelClickedListener listener) {
-        mClickingListeners.add(listener);
+        mClickingListeners = appendListener(mClickingListeners, listener);
     }
 
     /**
@@ -927,15 +1963,47 @@ public class WheelView extends View {
      * @param listener the listener
      */
     public void removeClickingListener(OnWheelClickedListener listener) {
-        mClickingListeners.remove(listener);
+        mClickingListeners = removeListener(mClickingListeners, listener);
     }
 
     /**
      * Notifies listeners about clicking
      */
     protected void notifyClickListenersAboutClick(int item) {
-        for (OnWheelClickedListener listener : mClickingListeners) {
+        OnWheelClickedListener[] listeners = mClickingListeners;
+        for (OnWheelClickedListener listener : listeners) {
             listener.onItemClicked(this, item);
         }
     }
+
+    /**
+     * Copies the listeners with one more listener
+     *
+     * @param listeners the current listeners
+     * @param listener  the listener to add
+     * @return the new listeners
+     */
+    private static <T> T[] appendListener(T[] listeners, T listener) {
+        T[] result = Arrays.copyOf(listeners, listeners.length + 1);
+        result[listeners.length] = listener;
+        return result;
+    }
+
+    /**
+     * Copies the listeners without the first occurrence of a listener
+     *
+     * @param listeners the current listeners
+     * @param listener  the listener to remove
+     * @return the new listeners, or the current ones if the listener is not found
+     */
+    private static <T> T[] removeListener(T[] listeners, T listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i].equals(listener)) {
+                T[] result = Arrays.copyOf(listeners, listeners.length - 1);
+                System.arraycopy(listeners, i + 1, result, i, listeners.length - 1 - i);
+                return result;
+            }
+        }
+        return listeners;
+    }
 }
@@ -17,16 +17,22 @@
 package com.github.kilnn.wheelview.adapters;
 
 import android.database.DataSetObserver;
+import android.graphics.Paint;
 import android.view.View;
 import android.view.ViewGroup;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Abstract Wheel adapter.
  */
-public abstract class AbstractWheelAdapter implements WheelViewAdapter {
+public abstract class AbstractWheelAdapter implements WheelItemViewAdapter {
+
+    /**
+     * Paint to compare label widths. Only the relative widths matter, so the text size is left default.
+     */
+    private static Paint measurePaint;
 
     private List<DataSetObserver> datasetObservers;
     
@@ -35,10 +41,45 @@ public abstract class AbstractWheelAdapter implements WheelViewAdapter {
         return null;
     }
 
+    @Override
+    public int getItemViewType(int index) {
+        return 0;
+    }
+
+    @Override
+    public int getViewTypeCount() {
+        return 1;
+    }
+
+    @Override
+    public void onBindSelectionState(View view, int index, boolean selected) {
+    }
+
+    @Override
+    public int getWidestItemIndex() {
+        return -1;
+    }
+
+    /**
+     * Measures the label width, to find the widest item. Must be called on the main thread.
+     *
+     * @param label the item label
+     * @return the label width, in the units of a default paint
+     */
+    protected static float measureLabel(CharSequence label) {
+        if (label == null) {
+            return 0;
+        }
+        if (measurePaint == null) {
+            measurePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        }
+        return measurePaint.measureText(label, 0, label.length());
+    }
+
     @Override
     public void registerDataSetObserver(DataSetObserver observer) {
         if (datasetObservers == null) {
-            datasetObservers = new LinkedList<>();
+            datasetObservers = new ArrayList<>();
         }
         datasetObservers.add(observer);
     }
@@ -55,19 +96,85 @@ public abstract class AbstractWheelAdapter implements WheelViewAdapter {
      */
     protected void notifyDataChangedEvent() {
         if (datasetObservers != null) {
-            for (DataSetObserver observer : datasetObservers) {
-                observer.onChanged();
+            for (int i = 0; i < datasetObservers.size(); i++) {
+                datasetObservers.get(i).onChanged();
             }
         }
     }
     
+    /**
+     * Notifies observers about the change of an item
+     *
+     * @param index the index of changed item
+     */
+    protected void notifyItemChanged(int index) {
+        notifyItemRangeChanged(index, 1);
+    }
+
+    /**
+     * Notifies observers about the change of items. Observers rebind only these items.
+     *
+     * @param start the index of first changed item
+     * @param count the count of changed items
+     */
+    protected void notifyItemRangeChanged(int start, int count) {
+        if (datasetObservers != null) {
+            for (int i = 0; i < datasetObservers.size(); i++) {
+                DataSetObserver observer = datasetObservers.get(i);
+                if (observer instanceof WheelDataSetObserver) {
+                    ((WheelDataSetObserver) observer).onItemRangeChanged(start, count);
+                } else {
+                    observer.onChanged();
+                }
+            }
+        }
+    }
+
+    /**
+     * Notifies observers about inserted items
+     *
+     * @param start the index of first inserted item
+     * @param count the count of inserted items
+     */
+    protected void notifyItemRangeInserted(int start, int count) {
+        if (datasetObservers != null) {
+            for (int i = 0; i < datasetObservers.size(); i++) {
+                DataSetObserver observer = datasetObservers.get(i);
+                if (observer instanceof WheelDataSetObserver) {
+                    ((WheelDataSetObserver) observer).onItemRangeInserted(start, count);
+                } else {
+                    observer.onChanged();
+                }
+            }
+        }
+    }
+
+    /**
+     * Notifies observers about removed items
+     *
+     * @param start the index the first removed item had
+     * @param count the count of removed items
+     */
+    protected void notifyItemRangeRemoved(int start, int count) {
+        if (datasetObservers != null) {
+            for (int i = 0; i < datasetObservers.size(); i++) {
+                DataSetObserver observer = datasetObservers.get(i);
+                if (observer instanceof WheelDataSetObserver) {
+                    ((WheelDataSetObserver) observer).onItemRangeRemoved(start, count);
+                } else {
+                    observer.onChanged();
+                }
+            }
+        }
+    }
+
     /**
      * Notifies observers about invalidating data
      */
     protected void notifyDataInvalidatedEvent() {
         if (datasetObservers != null) {
-            for (DataSetObserver observer : datasetObservers) {
-                observer.onInvalidated();
+            for (int i = 0; i < datasetObservers.size(); i++) {
+                datasetObservers.get(i).onInvalidated();
             }
         }
     }
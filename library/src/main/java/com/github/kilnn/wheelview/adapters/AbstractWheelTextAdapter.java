@@ -27,7 +27,7 @@ import android.widget.TextView;
 /**
  * Abstract wheel adapter provides common functionality for adapters.
  */
-public abstract class AbstractWheelTextAdapter extends AbstractWheelAdapter {
+public abstract class AbstractWheelTextAdapter extends AbstractWheelAdapter implements WheelTextAdapter {
 
     /**
      * Text view resource. Used as a default view for adapter.
@@ -201,6 +201,11 @@ public abstract class AbstractWheelTextAdapter extends AbstractWheelAdapter {
      */
     protected abstract CharSequence getItemText(int index);
 
+    @Override
+    public CharSequence getItemLabel(int index) {
+        return getItemText(index);
+    }
+
     @Override
     public View getItem(int index, View convertView, ViewGroup parent) {
         if (index >= 0 && index < getItemsCount()) {
@@ -26,6 +26,10 @@ public class ArrayWheelAdapter<T> extends AbstractWheelTextAdapter {
 
     // items
     private final T[] items;
+    // labels of items
+    private final ArrayWheelLabels<T> labels;
+    // the widest item, -2 if not found yet
+    private int widestItemIndex = -2;
 
     /**
      * Constructor
@@ -36,18 +40,32 @@ public class ArrayWheelAdapter<T> extends AbstractWheelTextAdapter {
     public ArrayWheelAdapter(Context context, T[] items) {
         super(context);
         this.items = items;
+        labels = new ArrayWheelLabels<>(items);
     }
 
     @Override
     public CharSequence getItemText(int index) {
-        if (index >= 0 && index < items.length) {
-            T item = items[index];
-            if (item instanceof CharSequence) {
-                return (CharSequence) item;
+        return labels.getLabel(index);
+    }
+
+    /**
+     * Measures every item once, without caching their labels
+     */
+    @Override
+    public int getWidestItemIndex() {
+        if (widestItemIndex == -2) {
+            widestItemIndex = -1;
+            float widest = -1;
+            for (int i = 0; i < items.length; i++) {
+                T item = items[i];
+                float width = measureLabel(item instanceof CharSequence ? (CharSequence) item : item.toString());
+                if (width > widest) {
+                    widest = width;
+                    widestItemIndex = i;
+                }
             }
-            return item.toString();
         }
-        return null;
+        return widestItemIndex;
     }
 
     @Override
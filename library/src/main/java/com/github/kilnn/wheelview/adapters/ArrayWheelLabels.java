@@ -0,0 +1,54 @@
+package com.github.kilnn.wheelview.adapters;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Item labels of {@link ArrayWheelAdapter}. Items that are not CharSequence are converted
+ * with toString once and kept in a {@link WheelLabelCache}.
+ * <p>Making labels needs no Context, so they can also be made, e.g. benchmarked, outside Android.
+ *
+ * @param <T> the element type
+ */
+public final class ArrayWheelLabels<T> {
+
+    // items
+    private final T[] items;
+    // labels of items that are not CharSequence
+    private WheelLabelCache labelCache;
+
+    /**
+     * Constructor
+     *
+     * @param items the items
+     */
+    public ArrayWheelLabels(T[] items) {
+        this.items = items;
+    }
+
+    /**
+     * Gets the label of an item, from the cache if it was converted before
+     *
+     * @param index the item index
+     * @return the label, or null if index is out of range
+     */
+    @Nullable
+    public CharSequence getLabel(int index) {
+        if (index >= 0 && index < items.length) {
+            T item = items[index];
+            if (item instanceof CharSequence) {
+                return (CharSequence) item;
+            }
+            if (labelCache == null) {
+                labelCache = new WheelLabelCache(Math.min(items.length, WheelLabelCache.DEFAULT_CAPACITY));
+            }
+            long key = WheelLabelCache.key(index, 0);
+            CharSequence text = labelCache.get(key);
+            if (text == null) {
+                text = item.toString();
+                labelCache.put(key, text);
+            }
+            return text;
+        }
+        return null;
+    }
+}
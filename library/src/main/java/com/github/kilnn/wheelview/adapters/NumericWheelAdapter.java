@@ -21,7 +21,7 @@ import android.content.Context;
 /**
  * Numeric Wheel adapter.
  */
-public class NumericWheelAdapter extends AbstractWheelTextAdapter {
+public class NumericWheelAdapter extends AbstractWheelTextAdapter implements WheelNumericAdapter {
 
     /**
      * The default min value
@@ -38,6 +38,10 @@ public class NumericWheelAdapter extends AbstractWheelTextAdapter {
     private final int maxValue;
     // format
     private final String format;
+    // formatted labels
+    private final NumericWheelLabels labels;
+    // the widest item, -2 if not found yet
+    private int widestItemIndex = -2;
 
     /**
      * Constructor
@@ -73,15 +77,55 @@ public class NumericWheelAdapter extends AbstractWheelTextAdapter {
         this.minValue = minValue;
         this.maxValue = maxValue;
         this.format = format;
+        labels = new NumericWheelLabels(minValue, maxValue, format);
     }
 
     @Override
     public CharSequence getItemText(int index) {
-        if (index >= 0 && index < getItemsCount()) {
-            int value = minValue + index;
-            return format != null ? String.format(format, value) : Integer.toString(value);
+        return labels.getLabel(index);
+    }
+
+    /**
+     * Sets the cache of formatted labels. Adapters with the same format can share one cache.
+     *
+     * @param labelCache the label cache
+     * @throws IllegalArgumentException if the cache holds labels of another format
+     */
+    public void setLabelCache(WheelLabelCache labelCache) {
+        labels.setLabelCache(labelCache);
+    }
+
+    /**
+     * Without format, the longest label is the one of min or max value.
+     * With format, every item is measured once. Labels are measured without caching them,
+     * so the visible labels stay in the cache.
+     */
+    @Override
+    public int getWidestItemIndex() {
+        if (widestItemIndex == -2) {
+            int count = getItemsCount();
+            int step = format == null ? Math.max(count - 1, 1) : 1;
+            widestItemIndex = -1;
+            float widest = -1;
+            for (int index = 0; index < count; index += step) {
+                float width = measureLabel(labels.formatValue(minValue + index));
+                if (width > widest) {
+                    widest = width;
+                    widestItemIndex = index;
+                }
+            }
         }
-        return null;
+        return widestItemIndex;
+    }
+
+    @Override
+    public boolean isPlainNumeric() {
+        return format == null;
+    }
+
+    @Override
+    public int getItemValue(int index) {
+        return minValue + index;
     }
 
     @Override
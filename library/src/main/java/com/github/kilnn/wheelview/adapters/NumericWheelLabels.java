@@ -0,0 +1,83 @@
+package com.github.kilnn.wheelview.adapters;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Item labels of {@link NumericWheelAdapter}, formatted once and kept in a {@link WheelLabelCache}.
+ * <p>Making labels needs no Context, so they can also be made, e.g. benchmarked, outside Android.
+ */
+public final class NumericWheelLabels {
+
+    // Values
+    private final int minValue;
+    private final int maxValue;
+    // format
+    private final String format;
+    // formatted labels
+    private WheelLabelCache labelCache = new WheelLabelCache();
+
+    /**
+     * Constructor
+     *
+     * @param minValue the wheel min value
+     * @param maxValue the wheel max value
+     * @param format   the format string, or null for the plain values
+     */
+    public NumericWheelLabels(int minValue, int maxValue, @Nullable String format) {
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.format = format;
+        labelCache.bindFormat(getLabelFormat());
+    }
+
+    /**
+     * Gets the label of an item, from the cache if it was formatted before
+     *
+     * @param index the item index
+     * @return the label, or null if index is out of range
+     */
+    @Nullable
+    public CharSequence getLabel(int index) {
+        if (index >= 0 && index <= maxValue - minValue) {
+            int value = minValue + index;
+            long key = WheelLabelCache.key(0, value);
+            CharSequence text = labelCache.get(key);
+            if (text == null) {
+                text = formatValue(value);
+                labelCache.put(key, text);
+            }
+            return text;
+        }
+        return null;
+    }
+
+    /**
+     * Formats the label of a value, without caching it
+     *
+     * @param value the item value
+     * @return the label
+     */
+    String formatValue(int value) {
+        return format != null ? String.format(format, value) : Integer.toString(value);
+    }
+
+    /**
+     * Gets the format that label caches of these labels are bound to
+     *
+     * @return the format string, or this class for labels without format
+     */
+    private Object getLabelFormat() {
+        return format != null ? format : NumericWheelLabels.class;
+    }
+
+    /**
+     * Sets the cache of formatted labels. Labels with the same format can share one cache.
+     *
+     * @param labelCache the label cache
+     * @throws IllegalArgumentException if the cache holds labels of another format
+     */
+    public void setLabelCache(WheelLabelCache labelCache) {
+        labelCache.bindFormat(getLabelFormat());
+        this.labelCache = labelCache;
+    }
+}
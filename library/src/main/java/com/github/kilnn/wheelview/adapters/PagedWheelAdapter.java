@@ -0,0 +1,391 @@
+package com.github.kilnn.wheelview.adapters;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.github.kilnn.wheelview.OnWheelChangedListener;
+import com.github.kilnn.wheelview.WheelView;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Text adapter for wheels with too many items to load at once, e.g. the rows of a large database table.
+ * <p>Labels are loaded in pages from a {@link WheelPagedDataSource} on a background thread, around the items
+ * the wheel binds, and the next pages in the scrolling direction are prefetched. Items of a page not loaded yet
+ * show a placeholder, and are rebound when the page arrives. Only the most recently used pages are kept.
+ * <p>The scrolling direction comes from the changes of current item, {@link WheelView#setViewAdapter} adds
+ * the adapter to the changing listeners of the wheel for this.
+ * <p>A page that fails to load is retried {@link #MAX_RETRIES} times, after 1, 2 then 4 seconds.
+ * After that it is requested again when one of its items is bound.
+ * <p>The count of items is also loaded on the executor. Until it arrives the adapter has 0 items,
+ * or the count estimated by the caller, and observers are notified of a data change when it arrives.
+ * <p>Labels are not known before they load, so give the wheel a fixed width rather than wrap_content.
+ */
+public class PagedWheelAdapter extends AbstractWheelTextAdapter implements OnWheelChangedListener {
+
+    /**
+     * Default count of items per page
+     */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    /**
+     * Default count of pages kept
+     */
+    public static final int DEFAULT_MAX_PAGES = 8;
+
+    /**
+     * Count of retries of a page that failed to load
+     */
+    public static final int MAX_RETRIES = 3;
+
+    /**
+     * Delay before the first retry, doubled for each next one
+     */
+    private static final long RETRY_DELAY_MS = 1000;
+
+    private final WheelPagedDataSource dataSource;
+    private final int pageSize;
+    private final Executor executor;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    // loaded pages in access order, the least recently used page is dropped first
+    private final Map<Integer, CharSequence[]> pages;
+    // pages being loaded, or waiting to be retried
+    private final Set<Integer> loadingPages = new HashSet<>();
+    // increased by refresh, pages requested before are dropped when they arrive
+    private int generation;
+
+    private int count;
+    private CharSequence placeholder = "…";
+    private int prefetchPages = 1;
+    // the scrolling direction, from the last change of current item
+    private int direction = 1;
+
+    /**
+     * Constructor
+     *
+     * @param context    the current context
+     * @param dataSource the source of labels
+     */
+    public PagedWheelAdapter(Context context, @NonNull WheelPagedDataSource dataSource) {
+        this(context, dataSource, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param context    the current context
+     * @param dataSource the source of labels
+     * @param pageSize   the count of items per page
+     * @param maxPages   the count of pages kept, at least 3
+     * @param executor   the executor to load pages on, or null to use a shared background thread
+     */
+    public PagedWheelAdapter(Context context, @NonNull WheelPagedDataSource dataSource,
+                             int pageSize, int maxPages, @Nullable Executor executor) {
+        this(context, dataSource, pageSize, maxPages, 0, executor);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param context    the current context
+     * @param dataSource the source of labels
+     * @param pageSize   the count of items per page
+     * @param maxPages       the count of pages kept, at least 3
+     * @param estimatedCount the count of items until the count of the data source is loaded
+     * @param executor       the executor to load pages on, or null to use a shared background thread
+     */
+    public PagedWheelAdapter(Context context, @NonNull WheelPagedDataSource dataSource,
+                             int pageSize, final int maxPages, int estimatedCount, @Nullable Executor executor) {
+        super(context);
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        if (maxPages < 3) {
+            throw new IllegalArgumentException("maxPages must be at least 3");
+        }
+        this.dataSource = dataSource;
+        this.pageSize = pageSize;
+        this.executor = executor != null ? executor : getLoadExecutor();
+        this.pages = new LinkedHashMap<Integer, CharSequence[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CharSequence[]> eldest) {
+                return size() > maxPages;
+            }
+        };
+        this.count = Math.max(0, estimatedCount);
+        synchronized (pages) {
+            loadCount();
+        }
+    }
+
+    /**
+     * Gets the label of items whose page is not loaded yet
+     *
+     * @return the placeholder
+     */
+    public CharSequence getPlaceholder() {
+        return placeholder;
+    }
+
+    /**
+     * Sets the label of items whose page is not loaded yet
+     *
+     * @param placeholder the placeholder
+     */
+    public void setPlaceholder(CharSequence placeholder) {
+        this.placeholder = placeholder;
+    }
+
+    /**
+     * Gets count of pages prefetched in the scrolling direction
+     *
+     * @return the count of pages
+     */
+    public int getPrefetchPages() {
+        return prefetchPages;
+    }
+
+    /**
+     * Sets count of pages prefetched in the scrolling direction. Keep it below maxPages - 1,
+     * or prefetched pages drop the pages on screen.
+     *
+     * @param prefetchPages the count of pages, 0 to load only the pages bound
+     */
+    public void setPrefetchPages(int prefetchPages) {
+        this.prefetchPages = Math.max(0, prefetchPages);
+    }
+
+    /**
+     * Checks if the label of an item is loaded
+     *
+     * @param index the item index
+     * @return true if the page of the item is loaded
+     */
+    public boolean isItemLoaded(int index) {
+        synchronized (pages) {
+            return index >= 0 && index < count && pages.containsKey(index / pageSize);
+        }
+    }
+
+    /**
+     * Drops the loaded pages and loads the count again, after the data source changed.
+     * The current count is kept until the new one arrives.
+     */
+    @MainThread
+    public void refresh() {
+        synchronized (pages) {
+            generation++;
+            pages.clear();
+            loadingPages.clear();
+            loadCount();
+        }
+        notifyDataChangedEvent();
+    }
+
+    @Override
+    public CharSequence getItemText(int index) {
+        int page = index / pageSize;
+        CharSequence[] labels;
+        // prewarming binds items off the main thread
+        synchronized (pages) {
+            if (index < 0 || index >= count) {
+                return null;
+            }
+            labels = pages.get(page);
+            if (labels == null) {
+                requestPage(page, 0);
+            }
+            for (int i = 1; i <= prefetchPages; i++) {
+                requestPage(page + direction * i, 0);
+            }
+        }
+        if (labels == null) {
+            return placeholder;
+        }
+        int offset = index - page * pageSize;
+        return offset < labels.length ? labels[offset] : null;
+    }
+
+    @Override
+    public int getItemsCount() {
+        return count;
+    }
+
+    /**
+     * Takes the scrolling direction from the change of current item. Binds don't change it,
+     * as the wheel also binds items in layout order when it lays out or rebinds them.
+     */
+    @Override
+    public void onChanged(WheelView wheel, int oldValue, int newValue) {
+        boolean cyclic = wheel != null && wheel.isCyclic();
+        synchronized (pages) {
+            int delta = newValue - oldValue;
+            // a cyclic wheel jumps across its ends, the index change is reversed
+            if (cyclic && Math.abs(delta) > count / 2) {
+                delta = -delta;
+            }
+            if (delta != 0) {
+                direction = delta > 0 ? 1 : -1;
+            }
+        }
+    }
+
+    /**
+     * Loads the count of items on the executor. Must hold the pages lock.
+     */
+    private void loadCount() {
+        final int requestGeneration = generation;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final int result;
+                try {
+                    result = Math.max(0, dataSource.getCount());
+                } catch (RuntimeException e) {
+                    Log.w("PagedWheelAdapter", "Load count failed", e);
+                    return;
+                }
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onCountLoaded(requestGeneration, result);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Keeps the loaded count of items and notifies observers if it changed
+     *
+     * @param requestGeneration the generation when the count was requested
+     * @param loadedCount       the count of items
+     */
+    @MainThread
+    private void onCountLoaded(int requestGeneration, int loadedCount) {
+        synchronized (pages) {
+            if (requestGeneration != generation || loadedCount == count) {
+                return;
+            }
+            count = loadedCount;
+        }
+        notifyDataChangedEvent();
+    }
+
+    /**
+     * Loads a page on the executor, unless it is loaded, being loaded or out of the items. Must hold the pages lock.
+     *
+     * @param page  the page index
+     * @param retry the count of failed loads before
+     */
+    private void requestPage(int page, int retry) {
+        if (page < 0 || page >= (count + pageSize - 1) / pageSize
+                || pages.containsKey(page) || !loadingPages.add(page)) {
+            return;
+        }
+        loadPage(page, retry);
+    }
+
+    /**
+     * Loads a page on the executor. Must hold the pages lock.
+     *
+     * @param page  the page index, in loadingPages
+     * @param retry the count of failed loads before
+     */
+    private void loadPage(final int page, final int retry) {
+        final int start = page * pageSize;
+        final int size = Math.min(pageSize, count - start);
+        final int requestGeneration = generation;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                CharSequence[] labels = null;
+                try {
+                    labels = dataSource.loadPage(start, size);
+                } catch (RuntimeException e) {
+                    Log.w("PagedWheelAdapter", "Load items " + start + " to " + (start + size - 1) + " failed", e);
+                }
+                final CharSequence[] result = labels;
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onPageLoaded(requestGeneration, page, retry, result);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Keeps a loaded page and rebinds its items
+     *
+     * @param requestGeneration the generation when the page was requested
+     * @param page              the page index
+     * @param retry             the count of failed loads before
+     * @param labels            the labels, or null if loading failed, so the page is retried
+     */
+    @MainThread
+    private void onPageLoaded(final int requestGeneration, final int page, final int retry, CharSequence[] labels) {
+        int start = page * pageSize;
+        synchronized (pages) {
+            if (requestGeneration != generation) {
+                return;
+            }
+            if (labels == null && retry < MAX_RETRIES && start < count) {
+                // stays in loadingPages until retried, so binds don't load it meanwhile
+                handler.postDelayed(new Runnable() {
+                    @Override
+                    public void run() {
+                        synchronized (pages) {
+                            if (requestGeneration == generation && loadingPages.contains(page)) {
+                                loadPage(page, retry + 1);
+                            }
+                        }
+                    }
+                }, RETRY_DELAY_MS << retry);
+                return;
+            }
+            loadingPages.remove(page);
+            if (labels == null || start >= count) {
+                return;
+            }
+            pages.put(page, labels);
+        }
+        notifyItemRangeChanged(start, Math.min(pageSize, count - start));
+    }
+
+    private static ExecutorService sLoadExecutor;
+
+    /**
+     * Gets the shared background thread for loading pages
+     *
+     * @return the executor
+     */
+    private static synchronized Executor getLoadExecutor() {
+        if (sLoadExecutor == null) {
+            sLoadExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "WheelPagedLoader");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return sLoadExecutor;
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.kilnn.wheelview.adapters;
+
+import android.database.DataSetObserver;
+
+/**
+ * Data set observer receiving the changes of item ranges.
+ * <p>Every range callback falls back to {@link #onChanged()} by default,
+ * observers override the ones they can handle more cheaply.
+ */
+public abstract class WheelDataSetObserver extends DataSetObserver {
+
+    /**
+     * Called when the content of items changed, but not their count or order
+     *
+     * @param start the index of first changed item
+     * @param count the count of changed items
+     */
+    public void onItemRangeChanged(int start, int count) {
+        onChanged();
+    }
+
+    /**
+     * Called when items are inserted
+     *
+     * @param start the index of first inserted item
+     * @param count the count of inserted items
+     */
+    public void onItemRangeInserted(int start, int count) {
+        onChanged();
+    }
+
+    /**
+     * Called when items are removed
+     *
+     * @param start the index the first removed item had
+     * @param count the count of removed items
+     */
+    public void onItemRangeRemoved(int start, int count) {
+        onChanged();
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.kilnn.wheelview.adapters;
+
+import android.view.View;
+
+/**
+ * Wheel adapter with several view types, selection state or a known widest item.
+ * <p>WheelView uses these methods only when the adapter implements this interface,
+ * other adapters have one view type, no selection state and an unknown widest item.
+ * {@link AbstractWheelAdapter} implements it with those defaults.
+ */
+public interface WheelItemViewAdapter extends WheelViewAdapter {
+    /**
+     * Gets the type of View that {@link #getItem} creates for the specified item.
+     * A recycled view is only passed as convertView to items of the same type.
+     *
+     * @param index the item index
+     * @return the view type, from 0 to {@link #getViewTypeCount()} - 1
+     */
+    int getItemViewType(int index);
+
+    /**
+     * Gets the count of view types that {@link #getItem} creates.
+     * The recycled view pool of the wheel keeps this many view types.
+     *
+     * @return the count of view types, at least 1
+     */
+    int getViewTypeCount();
+
+    /**
+     * Updates the view of an item entering or leaving the center of the wheel. It is only called
+     * on these two items, without binding them again. {@link #getItem} should bind views as not selected.
+     *
+     * @param view     the item view returned by {@link #getItem}
+     * @param index    the item index
+     * @param selected true if the item is at the center of the wheel
+     */
+    void onBindSelectionState(View view, int index, boolean selected);
+
+    /**
+     * Gets the index of the item with the widest content. WheelView measures only this
+     * item to get its content width, instead of measuring every visible item.
+     *
+     * @return the item index, or -1 if unknown
+     */
+    int getWidestItemIndex();
+}
@@ -0,0 +1,243 @@
+package com.github.kilnn.wheelview.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Bounded LRU cache of formatted item labels, so an item is formatted once and not on every bind.
+ * <p>Labels are keyed by {@link #key(int, int)}. A cache may be shared by adapters formatting
+ * their items with the same formatter, e.g. day wheels of different month lengths.
+ * Adapters with different formatters must not share a cache, an adapter can {@link #bindFormat bind}
+ * the cache to its format to enforce it.
+ * <p>Lookups and insertions take constant time and allocate nothing.
+ * The cache is thread safe, as item views may be prewarmed on a background thread.
+ */
+public final class WheelLabelCache {
+
+    /**
+     * The default count of cached labels
+     */
+    public static final int DEFAULT_CAPACITY = 128;
+
+    private final int capacity;
+
+    // Entries, linked in access order from head (most recent) to tail (least recent)
+    private final long[] keys;
+    private final CharSequence[] labels;
+    private final int[] prev;
+    private final int[] next;
+    private int head = -1;
+    private int tail = -1;
+    private int size;
+
+    // Open addressing hash table of entry + 1, 0 for empty slots
+    private final int[] table;
+    private final int mask;
+
+    // The format of the labels, null until bound
+    private Object format;
+
+    /**
+     * Constructor
+     */
+    public WheelLabelCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param capacity the max count of cached labels
+     */
+    public WheelLabelCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        keys = new long[capacity];
+        labels = new CharSequence[capacity];
+        prev = new int[capacity];
+        next = new int[capacity];
+        // keep the load factor under 0.5
+        int tableSize = Integer.highestOneBit(capacity) * 4;
+        table = new int[tableSize];
+        mask = tableSize - 1;
+    }
+
+    /**
+     * Makes the cache key of an item
+     *
+     * @param index the item index
+     * @param value the item value
+     * @return the key
+     */
+    public static long key(int index, int value) {
+        return ((long) index << 32) | (value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Binds the cache to the format of its labels. Adapters sharing the cache must bind it to equal formats.
+     *
+     * @param format the format of the labels
+     * @throws IllegalArgumentException if the cache is bound to another format
+     */
+    public synchronized void bindFormat(@NonNull Object format) {
+        if (this.format == null) {
+            this.format = format;
+        } else if (!this.format.equals(format)) {
+            throw new IllegalArgumentException("The cache holds labels of format " + this.format + ", not " + format);
+        }
+    }
+
+    /**
+     * Gets the cached label
+     *
+     * @param key the label key
+     * @return the label, or null if it is not cached
+     */
+    @Nullable
+    public synchronized CharSequence get(long key) {
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+        int entry = table[slot] - 1;
+        moveToHead(entry);
+        return labels[entry];
+    }
+
+    /**
+     * Caches a label. Evicts the least recently used label if the cache is full.
+     *
+     * @param key   the label key
+     * @param label the label
+     */
+    public synchronized void put(long key, CharSequence label) {
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            int entry = table[slot] - 1;
+            labels[entry] = label;
+            moveToHead(entry);
+            return;
+        }
+        int entry;
+        if (size < capacity) {
+            entry = size++;
+        } else {
+            entry = tail;
+            unlink(entry);
+            removeSlot(findSlot(keys[entry]));
+        }
+        keys[entry] = key;
+        labels[entry] = label;
+        slot = hash(key);
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry + 1;
+        linkHead(entry);
+    }
+
+    /**
+     * Gets the count of cached labels
+     *
+     * @return the count of labels
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Clears all labels
+     */
+    public synchronized void clear() {
+        Arrays.fill(table, 0);
+        Arrays.fill(labels, null);
+        head = -1;
+        tail = -1;
+        size = 0;
+    }
+
+    private int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    /**
+     * Finds the table slot of key
+     *
+     * @param key the key
+     * @return the slot, or -1 if key is not cached
+     */
+    private int findSlot(long key) {
+        int slot = hash(key);
+        while (table[slot] != 0) {
+            if (keys[table[slot] - 1] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Empties a table slot, shifting back the entries probed past it
+     *
+     * @param slot the slot to empty
+     */
+    private void removeSlot(int slot) {
+        table[slot] = 0;
+        int hole = slot;
+        int i = slot;
+        while (true) {
+            i = (i + 1) & mask;
+            if (table[i] == 0) {
+                return;
+            }
+            int home = hash(keys[table[i] - 1]);
+            // the entry stays if its home slot is cyclically in (hole, i]
+            boolean stays = hole <= i ? (home > hole && home <= i) : (home > hole || home <= i);
+            if (!stays) {
+                table[hole] = table[i];
+                table[i] = 0;
+                hole = i;
+            }
+        }
+    }
+
+    private void moveToHead(int entry) {
+        if (entry != head) {
+            unlink(entry);
+            linkHead(entry);
+        }
+    }
+
+    private void linkHead(int entry) {
+        prev[entry] = -1;
+        next[entry] = head;
+        if (head >= 0) {
+            prev[head] = entry;
+        }
+        head = entry;
+        if (tail < 0) {
+            tail = entry;
+        }
+    }
+
+    private void unlink(int entry) {
+        int p = prev[entry];
+        int n = next[entry];
+        if (p >= 0) {
+            next[p] = n;
+        } else {
+            head = n;
+        }
+        if (n >= 0) {
+            prev[n] = p;
+        } else {
+            tail = p;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.kilnn.wheelview.adapters;
+
+/**
+ * Text adapter whose items may be plain integer values.
+ * <p>When the labels are the plain decimal values, WheelView in text mode draws them
+ * from pre-rasterized digits, without formatting or laying out any text.
+ */
+public interface WheelNumericAdapter extends WheelTextAdapter {
+    /**
+     * Checks whether every label is the plain decimal value of its item, as Integer.toString makes it
+     *
+     * @return true if labels are plain values, false if they are formatted
+     */
+    boolean isPlainNumeric();
+
+    /**
+     * Gets the value of specified item
+     *
+     * @param index the item index
+     * @return the item value
+     */
+    int getItemValue(int index);
+}
@@ -0,0 +1,30 @@
+package com.github.kilnn.wheelview.adapters;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+/**
+ * Source of labels for {@link PagedWheelAdapter}, e.g. a database query.
+ * The count and the labels, a page at a time, are loaded on a background thread.
+ */
+public interface WheelPagedDataSource {
+
+    /**
+     * Gets the count of items. Called on the adapter's executor when the adapter is created and refreshed.
+     *
+     * @return the count of items
+     */
+    @WorkerThread
+    int getCount();
+
+    /**
+     * Loads the labels of a page of items. Called on the adapter's executor, never on the main thread.
+     *
+     * @param start the index of first item
+     * @param count the count of items
+     * @return the labels, may be shorter than count if the data shrank, or null if loading failed
+     */
+    @WorkerThread
+    @Nullable
+    CharSequence[] loadPage(int start, int count);
+}
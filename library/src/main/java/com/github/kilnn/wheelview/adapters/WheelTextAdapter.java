@@ -0,0 +1,16 @@
+package com.github.kilnn.wheelview.adapters;
+
+/**
+ * Wheel adapter whose items are plain text labels.
+ * <p>WheelView in text mode draws these labels directly on the canvas,
+ * without creating item views.
+ */
+public interface WheelTextAdapter extends WheelViewAdapter {
+    /**
+     * Gets the label of specified item
+     *
+     * @param index the item index
+     * @return the item label, or null if the item has no label
+     */
+    CharSequence getItemLabel(int index);
+}
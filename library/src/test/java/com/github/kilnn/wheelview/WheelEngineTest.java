@@ -0,0 +1,178 @@
+package com.github.kilnn.wheelview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the scroll and layout arithmetic of {@link WheelEngine} on the JVM.
+ */
+public class WheelEngineTest {
+
+    private static final int ITEM_HEIGHT = 40;
+    private static final int WHEEL_HEIGHT = ITEM_HEIGHT * 5;
+    private static final int ITEM_COUNT = 10;
+
+    private static WheelEngine engine(boolean cyclic, int currentItem) {
+        WheelEngine engine = new WheelEngine();
+        engine.setCyclic(cyclic);
+        engine.setCurrentItem(currentItem);
+        return engine;
+    }
+
+    @Test
+    public void scroll_movesCurrentItemByWholeItems() {
+        WheelEngine engine = engine(false, 5);
+        // scrolling down shows smaller indices
+        assertTrue(engine.scroll(ITEM_HEIGHT * 2 + 10, ITEM_HEIGHT, WHEEL_HEIGHT, ITEM_COUNT));
+        assertEquals(3, engine.getCurrentItem());
+        assertEquals(10, engine.getScrollingOffset(), 0);
+
+        assertFalse(engine.scroll(-5.5f, ITEM_HEIGHT, WHEEL_HEIGHT, ITEM_COUNT));
+        assertEquals(3, engine.getCurrentItem());
+        assertEquals(4.5f, engine.getScrollingOffset(), 0);
+        assertEquals(5, engine.getPixelOffset());
+    }
+
+    @Test
+    public void scroll_roundsToNearestItem() {
+        WheelEngine engine = engine(false, 5);
+        engine.scroll(ITEM_HEIGHT * 0.75f, ITEM_HEIGHT, WHEEL_HEIGHT, ITEM_COUNT);
+        assertEquals(4, engine.getCurrentItem());
+        assertEquals(-ITEM_HEIGHT * 0.25f, engine.getScrollingOffset(), 0.001f);
+    }
+
+    @Test
+    public void scroll_stopsAtEndsOfNonCyclicWheel() {
+        WheelEngine engine = engine(false, 1);
+        engine.scroll(ITEM_HEIGHT * 4, ITEM_HEIGHT, WHEEL_HEIGHT, ITEM_COUNT);
+        assertEquals(0, engine.getCurrentItem());
+        assertEquals(ITEM_HEIGHT * 3, engine.getScrollingOffset(), 0);
+
+        engine = engine(false, 8);
+        engine.scroll(-ITEM_HEIGHT * 4, ITEM_HEIGHT, WHEEL_HEIGHT, ITEM_COUNT);
+        assertEquals(ITEM_COUNT - 1, engine.getCurrentItem());
+        assertEquals(-ITEM_HEIGHT * 3, engine.getScrollingOffset(), 0);
+    }
+
+    @Test
+    public void scroll_wrapsAroundCyclicWheel() {
+        WheelEngine engine = engine(true, 1);
+        engine.scroll(ITEM_HEIGHT * 3, ITEM_HEIGHT, WHEEL_HEIGHT, ITEM_COUNT);
+        assertEquals(8, engine.getCurrentItem());
+        assertEquals(0, engine.getScrollingOffset(), 0);
+
+        engine.scroll(-ITEM_HEIGHT * 4, ITEM_HEIGHT, WHEEL_HEIGHT, ITEM_COUNT);
+        assertEquals(2, engine.getCurrentItem());
+    }
+
+    @Test
+    public void limitOffset_keepsOffsetWithinWheelHeight() {
+        WheelEngine engine = engine(false, 0);
+        engine.setScrollingOffset(WHEEL_HEIGHT + 1);
+        assertTrue(engine.limitOffset(WHEEL_HEIGHT));
+        assertEquals(WHEEL_HEIGHT, engine.getScrollingOffset(), 0);
+        engine.setScrollingOffset(-WHEEL_HEIGHT + 1);
+        assertFalse(engine.limitOffset(WHEEL_HEIGHT));
+    }
+
+    @Test
+    public void distanceTo_takesShortestPathOnCyclicWheel() {
+        assertEquals(8, engine(false, 1).distanceTo(9, ITEM_COUNT));
+        assertEquals(-2, engine(true, 1).distanceTo(9, ITEM_COUNT));
+        assertEquals(2, engine(true, 9).distanceTo(1, ITEM_COUNT));
+        assertEquals(3, engine(true, 2).distanceTo(5, ITEM_COUNT));
+    }
+
+    @Test
+    public void normalizeIndex_wrapsOnlyOnCyclicWheel() {
+        assertEquals(-1, engine(false, 0).normalizeIndex(ITEM_COUNT, ITEM_COUNT));
+        assertEquals(-1, engine(false, 0).normalizeIndex(-1, ITEM_COUNT));
+        assertEquals(0, engine(true, 0).normalizeIndex(ITEM_COUNT, ITEM_COUNT));
+        assertEquals(ITEM_COUNT - 1, engine(true, 0).normalizeIndex(-1, ITEM_COUNT));
+        assertEquals(-1, engine(true, 0).normalizeIndex(0, 0));
+    }
+
+    @Test
+    public void flingTarget_endsOnItem() {
+        WheelEngine engine = engine(true, 5);
+        engine.setScrollingOffset(7.25f);
+        float target = engine.getFlingTarget(-333, ITEM_HEIGHT, ITEM_COUNT);
+        float offset = engine.getScrollingOffset() - target;
+        assertEquals(0, offset % ITEM_HEIGHT, 0.001f);
+        assertEquals(-333, target, ITEM_HEIGHT / 2f);
+    }
+
+    @Test
+    public void flingTarget_stopsAtEndsOfNonCyclicWheel() {
+        WheelEngine engine = engine(false, 2);
+        // fling toward smaller indices stops at the first item
+        assertEquals(-ITEM_HEIGHT * 2, engine.getFlingTarget(-ITEM_HEIGHT * 50, ITEM_HEIGHT, ITEM_COUNT), 0);
+        // and toward larger indices at the last one
+        assertEquals(ITEM_HEIGHT * 7, engine.getFlingTarget(ITEM_HEIGHT * 50, ITEM_HEIGHT, ITEM_COUNT), 0);
+    }
+
+    @Test
+    public void clampScrollItems_limitsToScrollerRange() {
+        WheelEngine engine = engine(true, 0);
+        assertEquals(100, engine.clampScrollItems(100, ITEM_HEIGHT));
+        long far = Integer.MAX_VALUE;
+        long items = engine.clampScrollItems(-far, ITEM_HEIGHT);
+        assertTrue(items < 0);
+        assertTrue(Math.abs(items * ITEM_HEIGHT) <= WheelScroller.MAX_SCROLL_DISTANCE);
+    }
+
+    @Test
+    public void itemsRange_coversWheelAndOffset() {
+        WheelEngine engine = engine(false, 5);
+        assertNull(engine.getItemsRange(0, WHEEL_HEIGHT));
+
+        ItemsRange range = engine.getItemsRange(ITEM_HEIGHT, WHEEL_HEIGHT);
+        assertEquals(3, range.getFirst());
+        assertEquals(7, range.getLast());
+
+        engine.setScrollingOffset(10);
+        range = engine.getItemsRange(ITEM_HEIGHT, WHEEL_HEIGHT);
+        assertEquals(2, range.getFirst());
+        assertEquals(7, range.getLast());
+    }
+
+    @Test
+    public void recycleItems_recyclesViewsOutsideRange() {
+        final StringBuilder recycled = new StringBuilder();
+        WheelEngine.Recycler recycler = new WheelEngine.Recycler() {
+            @Override
+            public void recycle(int child, int position) {
+                recycled.append(child).append(':').append(position).append(' ');
+            }
+        };
+        // views of positions 2..8, keep 4..6
+        int first = WheelEngine.recycleItems(2, 7, new ItemsRange(4, 3), recycler);
+        assertEquals(4, first);
+        assertEquals("0:2 0:3 3:7 3:8 ", recycled.toString());
+
+        recycled.setLength(0);
+        first = WheelEngine.recycleItems(4, 3, new ItemsRange(), recycler);
+        assertEquals(7, first);
+        assertEquals("0:4 0:5 0:6 ", recycled.toString());
+    }
+
+    @Test
+    public void itemRangeNotifications_keepCurrentItemOnItsData() {
+        WheelEngine engine = engine(false, 5);
+        engine.onItemsInserted(2, 3, ITEM_COUNT + 3);
+        assertEquals(8, engine.getCurrentItem());
+        engine.onItemsInserted(9, 3, ITEM_COUNT + 6);
+        assertEquals(8, engine.getCurrentItem());
+
+        engine.onItemsRemoved(0, 2, ITEM_COUNT + 4);
+        assertEquals(6, engine.getCurrentItem());
+        engine.onItemsRemoved(5, 4, ITEM_COUNT);
+        assertEquals(5, engine.getCurrentItem());
+        engine.onItemsRemoved(0, ITEM_COUNT, 0);
+        assertEquals(0, engine.getCurrentItem());
+    }
+}
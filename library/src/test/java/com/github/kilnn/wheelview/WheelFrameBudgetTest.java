@@ -0,0 +1,787 @@
+package com.github.kilnn.wheelview;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Build;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.ContextThemeWrapper;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.LinearLayout;
+import android.widget.RelativeLayout;
+import android.widget.TextView;
+
+import com.github.kilnn.wheellayout.OneWheelLayout;
+import com.github.kilnn.wheellayout.WheelIntAdapter;
+import com.github.kilnn.wheellayout.WheelIntConfig;
+import com.github.kilnn.wheelview.adapters.ArrayWheelAdapter;
+import com.github.kilnn.wheelview.adapters.NumericWheelAdapter;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.annotation.RealObject;
+import org.robolectric.shadows.ShadowView;
+import org.robolectric.util.reflector.Direct;
+import org.robolectric.util.reflector.ForType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+import static org.robolectric.util.reflector.Reflector.reflector;
+
+/**
+ * Replays scripted drags and flings on wheels with each shipped adapter, and checks the work done per frame
+ * against the budgets in frame_budgets.properties.
+ * <p>Every frame advances the main looper by 16ms, lays out the wheel if it was requested, and draws it
+ * into a canvas that counts draw operations and saveLayer calls. Binds and inflations come from
+ * {@link WheelMetrics}, layout requests from the parent of the wheel. Budgets are the measured counts,
+ * update them when a change does less work, or does more on purpose.
+ * <p>The SDK is pinned, the draw operations of TextView differ between framework versions.
+ * Robolectric's View shadow only draws backgrounds, {@link ShadowDrawingView} runs the real View.draw instead.
+ * A method of View runs on the shadow of the view, so the views used here with a shadow of their own get
+ * a subclass of ShadowDrawingView in place of it.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.P, shadows = {
+        WheelFrameBudgetTest.ShadowDrawingView.class,
+        WheelFrameBudgetTest.ShadowDrawingViewGroup.class,
+        WheelFrameBudgetTest.ShadowDrawingLinearLayout.class,
+        WheelFrameBudgetTest.ShadowDrawingRelativeLayout.class,
+        WheelFrameBudgetTest.ShadowDrawingTextView.class
+})
+public class WheelFrameBudgetTest {
+
+    private static final long FRAME_MS = 16;
+    private static final int WIDTH = 300;
+    private static final int HEIGHT = 400;
+
+    private static Properties budgets;
+
+    @BeforeClass
+    public static void loadBudgets() throws IOException {
+        budgets = new Properties();
+        InputStream in = WheelFrameBudgetTest.class.getResourceAsStream("frame_budgets.properties");
+        assertNotNull("frame_budgets.properties", in);
+        try {
+            budgets.load(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    @Test
+    public void numericWheelAdapter_drag() {
+        assertWithinBudget("numeric.drag", numericWheel(false), Script.DRAG);
+    }
+
+    @Test
+    public void numericWheelAdapter_fling() {
+        assertWithinBudget("numeric.fling", numericWheel(false), Script.FLING);
+    }
+
+    @Test
+    public void numericWheelAdapterTextMode_drag() {
+        assertWithinBudget("numericText.drag", numericWheel(true), Script.DRAG);
+    }
+
+    @Test
+    public void numericWheelAdapterTextMode_fling() {
+        assertWithinBudget("numericText.fling", numericWheel(true), Script.FLING);
+    }
+
+    @Test
+    public void arrayWheelAdapter_drag() {
+        assertWithinBudget("array.drag", arrayWheel(), Script.DRAG);
+    }
+
+    @Test
+    public void arrayWheelAdapter_fling() {
+        assertWithinBudget("array.fling", arrayWheel(), Script.FLING);
+    }
+
+    @Test
+    public void wheelIntAdapter_drag() {
+        assertWithinBudget("wheelInt.drag", wheelIntWheel(), Script.DRAG);
+    }
+
+    @Test
+    public void wheelIntAdapter_fling() {
+        assertWithinBudget("wheelInt.fling", wheelIntWheel(), Script.FLING);
+    }
+
+    @Test
+    public void oneWheelLayout_drag() {
+        OneWheelLayout layout = oneWheelLayout();
+        assertWithinBudget("oneWheelLayout.drag", layout, layout.getWheelView(), Script.DRAG);
+    }
+
+    @Test
+    public void oneWheelLayout_fling() {
+        OneWheelLayout layout = oneWheelLayout();
+        assertWithinBudget("oneWheelLayout.fling", layout, layout.getWheelView(), Script.FLING);
+    }
+
+    private static Context context() {
+        return new ContextThemeWrapper(RuntimeEnvironment.getApplication(), android.R.style.Theme_Material_Light);
+    }
+
+    private static WheelView numericWheel(boolean textMode) {
+        Context context = context();
+        WheelView wheel = new WheelView(context);
+        wheel.setTextMode(textMode);
+        wheel.setViewAdapter(new NumericWheelAdapter(context, 0, 100));
+        wheel.setCurrentItem(50);
+        return wheel;
+    }
+
+    private static WheelView arrayWheel() {
+        Context context = context();
+        String[] items = new String[60];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = "Item " + i;
+        }
+        WheelView wheel = new WheelView(context);
+        wheel.setViewAdapter(new ArrayWheelAdapter<>(context, items));
+        wheel.setCurrentItem(30);
+        return wheel;
+    }
+
+    private static WheelView wheelIntWheel() {
+        WheelView wheel = new WheelView(context());
+        wheel.setCyclic(true);
+        // the center item is drawn again through a layer
+        wheel.setDrawHighlight(true);
+        wheel.setViewAdapter(new WheelIntAdapter(0, 59, null, null));
+        wheel.setCurrentItem(30);
+        return wheel;
+    }
+
+    private static OneWheelLayout oneWheelLayout() {
+        OneWheelLayout layout = new OneWheelLayout(context());
+        layout.setConfig(new WheelIntConfig(0, 100, false, "kg", null));
+        layout.setValue(50);
+        layout.getWheelView().setDrawHighlight(true);
+        return layout;
+    }
+
+    private static void assertWithinBudget(String scenario, WheelView wheel, Script script) {
+        assertWithinBudget(scenario, wheel, wheel, script);
+    }
+
+    private static void assertWithinBudget(String scenario, View content, WheelView wheel, Script script) {
+        FrameRecorder recorder = new FrameRecorder(content, wheel);
+        script.play(recorder);
+
+        StringBuilder failures = new StringBuilder();
+        for (Counter counter : Counter.values()) {
+            check(failures, scenario + "." + counter.key + ".maxPerFrame", recorder.maxPerFrame[counter.ordinal()]);
+            check(failures, scenario + "." + counter.key + ".total", recorder.totals[counter.ordinal()]);
+        }
+        if (failures.length() > 0) {
+            fail(scenario + " over budget after " + recorder.frames + " frames:" + failures);
+        }
+    }
+
+    private static void check(StringBuilder failures, String key, long measured) {
+        String budget = budgets.getProperty(key);
+        if (budget == null) {
+            failures.append("\n  ").append(key).append(" has no budget, measured ").append(measured);
+        } else if (measured > Long.parseLong(budget.trim())) {
+            failures.append("\n  ").append(key).append(" = ").append(measured).append(", budget ").append(budget.trim());
+        }
+    }
+
+    /**
+     * The work counted in every frame
+     */
+    private enum Counter {
+        DRAW_OPS("drawOps"),
+        SAVE_LAYERS("saveLayers"),
+        BINDS("binds"),
+        INFLATIONS("inflations"),
+        LAYOUT_REQUESTS("layoutRequests");
+
+        final String key;
+
+        Counter(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Touch input replayed on the wheel, one event per frame
+     */
+    private enum Script {
+        /**
+         * Drags up slowly, holds until the velocity is gone, then lifts and lets the wheel justify
+         */
+        DRAG {
+            @Override
+            void play(FrameRecorder recorder) {
+                float y = recorder.wheel.getHeight() / 2f;
+                recorder.touch(MotionEvent.ACTION_DOWN, y);
+                recorder.frame();
+                for (int i = 0; i < 15; i++) {
+                    y -= 6;
+                    recorder.touch(MotionEvent.ACTION_MOVE, y);
+                    recorder.frame();
+                }
+                for (int i = 0; i < 30; i++) {
+                    recorder.touch(MotionEvent.ACTION_MOVE, y);
+                    recorder.frame();
+                }
+                recorder.touch(MotionEvent.ACTION_UP, y);
+                recorder.frames(40);
+            }
+        },
+
+        /**
+         * Swipes up fast, then lets the fling run out and snap to an item
+         */
+        FLING {
+            @Override
+            void play(FrameRecorder recorder) {
+                float y = recorder.wheel.getHeight() - 10f;
+                recorder.touch(MotionEvent.ACTION_DOWN, y);
+                recorder.frame();
+                for (int i = 0; i < 8; i++) {
+                    y -= 60;
+                    recorder.touch(MotionEvent.ACTION_MOVE, y);
+                    recorder.frame();
+                }
+                // lifted right after the last move, at full speed
+                recorder.touch(MotionEvent.ACTION_UP, y);
+                recorder.frames(150);
+            }
+        };
+
+        abstract void play(FrameRecorder recorder);
+    }
+
+    /**
+     * Runs frames and keeps the max and total of every counter. The work done by touch events
+     * counts in the frame after them.
+     */
+    private static class FrameRecorder {
+        private final CountingFrameLayout host;
+        private final WheelView wheel;
+        private final CountingCanvas canvas;
+
+        final long[] maxPerFrame = new long[Counter.values().length];
+        final long[] totals = new long[Counter.values().length];
+        int frames;
+
+        private long downTime;
+        private long bindCount;
+        private long inflationCount;
+        private long layoutRequests;
+
+        FrameRecorder(View content, WheelView wheel) {
+            this.wheel = wheel;
+            host = new CountingFrameLayout(content.getContext());
+            host.addView(content, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+            wheel.setMetricsEnabled(true);
+
+            // the first layout and draw inflate the visible items, they are not part of the script
+            layout();
+            canvas = new CountingCanvas(Bitmap.createBitmap(WIDTH, Math.max(1, host.getMeasuredHeight()), Bitmap.Config.ARGB_8888));
+            host.draw(canvas);
+            startFrame();
+        }
+
+        /**
+         * Sends a touch event to the wheel
+         *
+         * @param action the event action
+         * @param y      the y in wheel coordinates
+         */
+        void touch(int action, float y) {
+            long now = SystemClock.uptimeMillis();
+            if (action == MotionEvent.ACTION_DOWN) {
+                downTime = now;
+            }
+            MotionEvent event = MotionEvent.obtain(downTime, now, action, wheel.getWidth() / 2f, y, 0);
+            wheel.onTouchEvent(event);
+            event.recycle();
+        }
+
+        void frames(int count) {
+            for (int i = 0; i < count; i++) {
+                frame();
+            }
+        }
+
+        void frame() {
+            shadowOf(Looper.getMainLooper()).idleFor(FRAME_MS, TimeUnit.MILLISECONDS);
+            if (host.isLayoutRequested()) {
+                layout();
+            }
+            host.draw(canvas);
+
+            WheelMetrics metrics = wheel.getMetrics();
+            record(Counter.DRAW_OPS, canvas.drawOps);
+            record(Counter.SAVE_LAYERS, canvas.saveLayers);
+            record(Counter.BINDS, metrics.getBindCount() - bindCount);
+            record(Counter.INFLATIONS, metrics.getInflationCount() - inflationCount);
+            record(Counter.LAYOUT_REQUESTS, host.layoutRequests - layoutRequests);
+            frames++;
+            startFrame();
+        }
+
+        private void startFrame() {
+            WheelMetrics metrics = wheel.getMetrics();
+            bindCount = metrics.getBindCount();
+            inflationCount = metrics.getInflationCount();
+            layoutRequests = host.layoutRequests;
+            canvas.reset();
+        }
+
+        private void record(Counter counter, long count) {
+            int i = counter.ordinal();
+            maxPerFrame[i] = Math.max(maxPerFrame[i], count);
+            totals[i] += count;
+        }
+
+        private void layout() {
+            host.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.AT_MOST));
+            host.layout(0, 0, host.getMeasuredWidth(), host.getMeasuredHeight());
+        }
+    }
+
+    /**
+     * Runs the real View.draw, so onDraw of every view reaches the canvas
+     */
+    @Implements(View.class)
+    public static class ShadowDrawingView extends ShadowView {
+        @RealObject
+        private View view;
+
+        @Implementation
+        @Override
+        protected void draw(Canvas canvas) {
+            reflector(ViewReflector.class, view).draw(canvas);
+        }
+    }
+
+    @Implements(ViewGroup.class)
+    public static class ShadowDrawingViewGroup extends ShadowDrawingView {
+    }
+
+    @Implements(LinearLayout.class)
+    public static class ShadowDrawingLinearLayout extends ShadowDrawingViewGroup {
+    }
+
+    @Implements(RelativeLayout.class)
+    public static class ShadowDrawingRelativeLayout extends ShadowDrawingViewGroup {
+    }
+
+    @Implements(TextView.class)
+    public static class ShadowDrawingTextView extends ShadowDrawingView {
+    }
+
+    @ForType(View.class)
+    interface ViewReflector {
+        @Direct
+        void draw(Canvas canvas);
+    }
+
+    /**
+     * Counts requestLayout calls reaching the parent of the wheel
+     */
+    private static class CountingFrameLayout extends FrameLayout {
+        long layoutRequests;
+
+        CountingFrameLayout(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void requestLayout() {
+            layoutRequests++;
+            super.requestLayout();
+        }
+    }
+
+    /**
+     * Counts draw operations and saveLayer calls. Calls made by another counted method of the canvas are not counted again.
+     */
+    private static class CountingCanvas extends Canvas {
+        /**
+         * Half size of the clip reported to views, large enough to contain any of them
+         */
+        private static final int CLIP_EXTENT = 1 << 20;
+
+        long drawOps;
+        long saveLayers;
+        private int depth;
+
+        CountingCanvas(Bitmap bitmap) {
+            super(bitmap);
+        }
+
+        void reset() {
+            drawOps = 0;
+            saveLayers = 0;
+        }
+
+        /**
+         * Robolectric's canvas doesn't keep a clip and reports it empty, so Layout would skip every line of text.
+         * Everything is reported visible instead.
+         */
+        @Override
+        public boolean getClipBounds(Rect bounds) {
+            bounds.set(-CLIP_EXTENT, -CLIP_EXTENT, CLIP_EXTENT, CLIP_EXTENT);
+            return true;
+        }
+
+        private void drawOp() {
+            if (depth++ == 0) {
+                drawOps++;
+            }
+        }
+
+        private void saveLayer() {
+            if (depth++ == 0) {
+                saveLayers++;
+            }
+        }
+
+        private void done() {
+            depth--;
+        }
+
+        @Override
+        public int saveLayer(RectF bounds, Paint paint, int saveFlags) {
+            saveLayer();
+            try {
+                return super.saveLayer(bounds, paint, saveFlags);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public int saveLayer(RectF bounds, Paint paint) {
+            saveLayer();
+            try {
+                return super.saveLayer(bounds, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public int saveLayer(float left, float top, float right, float bottom, Paint paint, int saveFlags) {
+            saveLayer();
+            try {
+                return super.saveLayer(left, top, right, bottom, paint, saveFlags);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public int saveLayer(float left, float top, float right, float bottom, Paint paint) {
+            saveLayer();
+            try {
+                return super.saveLayer(left, top, right, bottom, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public int saveLayerAlpha(RectF bounds, int alpha, int saveFlags) {
+            saveLayer();
+            try {
+                return super.saveLayerAlpha(bounds, alpha, saveFlags);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public int saveLayerAlpha(RectF bounds, int alpha) {
+            saveLayer();
+            try {
+                return super.saveLayerAlpha(bounds, alpha);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public int saveLayerAlpha(float left, float top, float right, float bottom, int alpha, int saveFlags) {
+            saveLayer();
+            try {
+                return super.saveLayerAlpha(left, top, right, bottom, alpha, saveFlags);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public int saveLayerAlpha(float left, float top, float right, float bottom, int alpha) {
+            saveLayer();
+            try {
+                return super.saveLayerAlpha(left, top, right, bottom, alpha);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {
+            drawOp();
+            try {
+                super.drawText(text, index, count, x, y, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawText(String text, float x, float y, Paint paint) {
+            drawOp();
+            try {
+                super.drawText(text, x, y, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawText(String text, int start, int end, float x, float y, Paint paint) {
+            drawOp();
+            try {
+                super.drawText(text, start, end, x, y, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawText(CharSequence text, int start, int end, float x, float y, Paint paint) {
+            drawOp();
+            try {
+                super.drawText(text, start, end, x, y, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawTextRun(char[] text, int index, int count, int contextIndex, int contextCount,
+                                float x, float y, boolean isRtl, Paint paint) {
+            drawOp();
+            try {
+                super.drawTextRun(text, index, count, contextIndex, contextCount, x, y, isRtl, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawTextRun(CharSequence text, int start, int end, int contextStart, int contextEnd,
+                                float x, float y, boolean isRtl, Paint paint) {
+            drawOp();
+            try {
+                super.drawTextRun(text, start, end, contextStart, contextEnd, x, y, isRtl, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+            drawOp();
+            try {
+                super.drawBitmap(bitmap, left, top, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+            drawOp();
+            try {
+                super.drawBitmap(bitmap, src, dst, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
+            drawOp();
+            try {
+                super.drawBitmap(bitmap, src, dst, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Matrix matrix, Paint paint) {
+            drawOp();
+            try {
+                super.drawBitmap(bitmap, matrix, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawColor(int color) {
+            drawOp();
+            try {
+                super.drawColor(color);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawColor(int color, PorterDuff.Mode mode) {
+            drawOp();
+            try {
+                super.drawColor(color, mode);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawPaint(Paint paint) {
+            drawOp();
+            try {
+                super.drawPaint(paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawLine(float startX, float startY, float stopX, float stopY, Paint paint) {
+            drawOp();
+            try {
+                super.drawLine(startX, startY, stopX, stopY, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawLines(float[] pts, Paint paint) {
+            drawOp();
+            try {
+                super.drawLines(pts, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawRect(RectF rect, Paint paint) {
+            drawOp();
+            try {
+                super.drawRect(rect, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawRect(Rect r, Paint paint) {
+            drawOp();
+            try {
+                super.drawRect(r, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+            drawOp();
+            try {
+                super.drawRect(left, top, right, bottom, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawRoundRect(RectF rect, float rx, float ry, Paint paint) {
+            drawOp();
+            try {
+                super.drawRoundRect(rect, rx, ry, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawRoundRect(float left, float top, float right, float bottom, float rx, float ry, Paint paint) {
+            drawOp();
+            try {
+                super.drawRoundRect(left, top, right, bottom, rx, ry, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawOval(RectF oval, Paint paint) {
+            drawOp();
+            try {
+                super.drawOval(oval, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawCircle(float cx, float cy, float radius, Paint paint) {
+            drawOp();
+            try {
+                super.drawCircle(cx, cy, radius, paint);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void drawPath(Path path, Paint paint) {
+            drawOp();
+            try {
+                super.drawPath(path, paint);
+            } finally {
+                done();
+            }
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.github.kilnn.wheelview;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Build;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+
+import com.github.kilnn.wheelview.adapters.AbstractWheelAdapter;
+import com.github.kilnn.wheelview.adapters.ArrayWheelAdapter;
+import com.github.kilnn.wheelview.adapters.NumericWheelAdapter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.Implements;
+import org.robolectric.util.reflector.Accessor;
+import org.robolectric.util.reflector.ForType;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.robolectric.util.reflector.Reflector.reflector;
+
+/**
+ * Scrolls real wheels frame by frame and checks that steady state frames allocate nothing.
+ * <p>A frame scrolls the wheel through the listener of its scroller, as an animation frame does, and draws it.
+ * So doScroll, the listener dispatch, updateView with WheelRecycle.recycleItems and getItem, and onDraw all run.
+ * Touch events and the looper are left out, the gesture detector and the looper allocate under Robolectric.
+ * <p>Robolectric's View shadows create a reflector on every invalidate, requestLayout, onLayout and addView,
+ * so views get shadows that implement nothing and run the framework code itself. Items are drawn into a canvas
+ * that drops every operation, Robolectric's canvas records them.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.P, shadows = {
+        WheelHotPathAllocationTest.ShadowRealView.class,
+        WheelHotPathAllocationTest.ShadowRealViewGroup.class,
+        WheelHotPathAllocationTest.ShadowRealLinearLayout.class
+})
+public class WheelHotPathAllocationTest {
+
+    private static final int WIDTH = 300;
+    private static final int HEIGHT = 400;
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void numericTextMode_allocatesNothingPerFrame() {
+        Context context = context();
+        WheelView wheel = new WheelView(context);
+        wheel.setTextMode(true);
+        wheel.setViewAdapter(new NumericWheelAdapter(context, 0, 100));
+        assertNoAllocation(wheel, 50);
+    }
+
+    @Test
+    public void arrayTextModeCyclic_allocatesNothingPerFrame() {
+        Context context = context();
+        String[] items = new String[60];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = "Item " + i;
+        }
+        WheelView wheel = new WheelView(context);
+        wheel.setTextMode(true);
+        wheel.setCyclic(true);
+        wheel.setDrawHighlight(true);
+        wheel.setViewAdapter(new ArrayWheelAdapter<>(context, items));
+        assertNoAllocation(wheel, 0);
+    }
+
+    @Test
+    public void itemViews_allocateNothingPerFrame() {
+        WheelView wheel = new WheelView(context());
+        wheel.setViewAdapter(new ItemAdapter(100));
+        assertNoAllocation(wheel, 50);
+    }
+
+    @Test
+    public void itemViewsCyclic_allocateNothingPerFrame() {
+        WheelView wheel = new WheelView(context());
+        wheel.setCyclic(true);
+        wheel.setDrawHighlight(true);
+        wheel.setViewAdapter(new ItemAdapter(60));
+        assertNoAllocation(wheel, 0);
+    }
+
+    private static Context context() {
+        return new ContextThemeWrapper(RuntimeEnvironment.getApplication(), android.R.style.Theme_Material_Light);
+    }
+
+    private static void assertNoAllocation(WheelView wheel, int currentItem) {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled());
+        long thread = Thread.currentThread().getId();
+
+        wheel.setCurrentItem(currentItem);
+        Frames frames = new Frames(wheel);
+        // warm up, the first frames inflate items and fill the recycler
+        frames.flings(20);
+        int changes = frames.changes;
+
+        // Robolectric links some framework methods lazily and may pay it in any round,
+        // while an allocation in the frames shows up in every round
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS && allocated > 0; round++) {
+            long before = bean.getThreadAllocatedBytes(thread);
+            frames.flings(20);
+            allocated = Math.min(allocated, bean.getThreadAllocatedBytes(thread) - before);
+        }
+
+        assertTrue("the wheel didn't scroll", frames.changes > changes);
+        assertEquals("bytes allocated by the cleanest round of 2020 frames", 0, allocated);
+    }
+
+    /**
+     * Plays flings up and down on a wheel, each frame scrolls it and draws it
+     */
+    private static class Frames implements OnWheelChangedListener, OnWheelScrollListener, OnWheelSettledListener {
+        private final WheelView wheel;
+        private final WheelScroller.ScrollingListener scrolling;
+        private final Canvas canvas = new DroppingCanvas();
+        int changes;
+        int count;
+
+        Frames(WheelView wheel) {
+            this.wheel = wheel;
+            wheel.addChangingListener(this);
+            wheel.addScrollingListener(this);
+            wheel.addSettledListener(this);
+            wheel.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.AT_MOST));
+            wheel.layout(0, 0, wheel.getMeasuredWidth(), wheel.getMeasuredHeight());
+            WheelScroller scroller = reflector(WheelViewReflector.class, wheel).getScroller();
+            scrolling = reflector(WheelScrollerReflector.class, scroller).getListener();
+        }
+
+        /**
+         * Plays flings, each one slows down to a stop then scrolls back
+         *
+         * @param flings the count of flings
+         */
+        void flings(int flings) {
+            for (int fling = 0; fling < flings; fling++) {
+                scrolling.onStarted();
+                float delta = fling % 2 == 0 ? 60 : -60;
+                for (int frame = 0; frame < 100; frame++) {
+                    delta *= 0.96f;
+                    scrolling.onScroll(delta);
+                    wheel.onDraw(canvas);
+                    count++;
+                }
+                scrolling.onFinished();
+                wheel.onDraw(canvas);
+                count++;
+            }
+        }
+
+        @Override
+        public void onChanged(WheelView wheel, int oldValue, int newValue) {
+            changes++;
+        }
+
+        @Override
+        public void onScrollingStarted(WheelView wheel) {
+        }
+
+        @Override
+        public void onScrollingFinished(WheelView wheel) {
+        }
+
+        @Override
+        public void onValueSettled(WheelView wheel, int value) {
+        }
+    }
+
+    /**
+     * Binds items by reusing the recycled view, so the binds themselves allocate nothing
+     */
+    private static class ItemAdapter extends AbstractWheelAdapter {
+        private final int count;
+
+        ItemAdapter(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public int getItemsCount() {
+            return count;
+        }
+
+        @Override
+        public View getItem(int index, View convertView, ViewGroup parent) {
+            ItemView view = convertView != null ? (ItemView) convertView : new ItemView(parent.getContext());
+            view.index = index;
+            return view;
+        }
+    }
+
+    private static class ItemView extends View {
+        int index;
+
+        ItemView(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            setMeasuredDimension(WIDTH, 40);
+        }
+    }
+
+    /**
+     * Drops every draw operation, Robolectric's canvas would describe each one in a string
+     */
+    private static class DroppingCanvas extends Canvas {
+        @Override
+        public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {
+        }
+
+        @Override
+        public void drawText(String text, float x, float y, Paint paint) {
+        }
+
+        @Override
+        public void drawText(String text, int start, int end, float x, float y, Paint paint) {
+        }
+
+        @Override
+        public void drawText(CharSequence text, int start, int end, float x, float y, Paint paint) {
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+        }
+
+        @Override
+        public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        }
+
+        @Override
+        public void drawRect(Rect rect, Paint paint) {
+        }
+
+        @Override
+        public void drawRect(RectF rect, Paint paint) {
+        }
+
+        @Override
+        public void drawPaint(Paint paint) {
+        }
+
+        @Override
+        public void drawColor(int color) {
+        }
+
+        @Override
+        public void drawPath(Path path, Paint paint) {
+        }
+    }
+
+    /**
+     * Shadows nothing, so the framework code of views runs unchanged
+     */
+    @Implements(View.class)
+    public static class ShadowRealView {
+    }
+
+    @Implements(ViewGroup.class)
+    public static class ShadowRealViewGroup extends ShadowRealView {
+    }
+
+    @Implements(LinearLayout.class)
+    public static class ShadowRealLinearLayout extends ShadowRealViewGroup {
+    }
+
+    @ForType(WheelView.class)
+    interface WheelViewReflector {
+        @Accessor("mScroller")
+        WheelScroller getScroller();
+    }
+
+    @ForType(WheelScroller.class)
+    interface WheelScrollerReflector {
+        @Accessor("listener")
+        WheelScroller.ScrollingListener getListener();
+    }
+}
@@ -0,0 +1,290 @@
+package com.github.kilnn.wheelview.adapters;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.Looper;
+import android.view.ContextThemeWrapper;
+
+import com.github.kilnn.wheelview.WheelView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Loads pages on the calling thread, so only the delivery of loaded pages waits for the main looper.
+ * Adapters are created with their count loaded.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.P)
+public class PagedWheelAdapterTest {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int COUNT = 100;
+
+    private Source source;
+    private Observer observer;
+
+    @Before
+    public void setUp() {
+        source = new Source();
+        observer = new Observer();
+    }
+
+    @Test
+    public void count_isLoadedOnExecutor() {
+        QueueExecutor executor = new QueueExecutor();
+        PagedWheelAdapter adapter = new PagedWheelAdapter(RuntimeEnvironment.getApplication(), source, PAGE_SIZE, 8, 20, executor);
+        adapter.registerDataSetObserver(observer);
+        assertEquals(20, adapter.getItemsCount());
+        assertEquals(0, source.countLoads);
+
+        executor.runAll();
+        assertEquals(1, source.countLoads);
+        assertEquals(20, adapter.getItemsCount());
+        assertTrue(observer.changes.isEmpty());
+
+        idle();
+        assertEquals(COUNT, adapter.getItemsCount());
+        assertEquals(1, observer.changes.size());
+        assertEquals(-1, observer.changes.get(0)[0]);
+    }
+
+    @Test
+    public void unloadedItem_showsPlaceholder() {
+        PagedWheelAdapter adapter = adapter(8, new SyncExecutor());
+        adapter.setPlaceholder("-");
+
+        assertEquals("-", adapter.getItemText(5));
+        assertFalse(adapter.isItemLoaded(5));
+
+        idle();
+        assertEquals("item 5", adapter.getItemText(5));
+        assertTrue(adapter.isItemLoaded(5));
+    }
+
+    @Test
+    public void loadedPage_rebindsItsItems() {
+        PagedWheelAdapter adapter = adapter(8, new SyncExecutor());
+        adapter.setPrefetchPages(0);
+        adapter.getItemText(25);
+        assertTrue(observer.changes.isEmpty());
+
+        idle();
+        assertEquals(1, observer.changes.size());
+        assertEquals(20, observer.changes.get(0)[0]);
+        assertEquals(PAGE_SIZE, observer.changes.get(0)[1]);
+    }
+
+    @Test
+    public void leastRecentlyUsedPage_isDropped() {
+        PagedWheelAdapter adapter = adapter(3, new SyncExecutor());
+        adapter.setPrefetchPages(0);
+        adapter.getItemText(0);
+        adapter.getItemText(10);
+        adapter.getItemText(20);
+        idle();
+        // page 0 becomes the most recently used
+        adapter.getItemText(0);
+
+        adapter.getItemText(30);
+        idle();
+        assertTrue(adapter.isItemLoaded(0));
+        assertFalse(adapter.isItemLoaded(10));
+        assertTrue(adapter.isItemLoaded(20));
+        assertTrue(adapter.isItemLoaded(30));
+    }
+
+    @Test
+    public void refresh_dropsPagesInFlight() {
+        QueueExecutor executor = new QueueExecutor();
+        PagedWheelAdapter adapter = adapter(8, executor);
+        adapter.setPrefetchPages(0);
+        adapter.getItemText(0);
+        source.prefix = "new ";
+        adapter.refresh();
+        observer.changes.clear();
+
+        executor.runAll();
+        idle();
+        assertFalse(adapter.isItemLoaded(0));
+        assertTrue(observer.changes.isEmpty());
+
+        adapter.getItemText(0);
+        executor.runAll();
+        idle();
+        assertEquals("new 0", adapter.getItemText(0));
+    }
+
+    @Test
+    public void prefetch_followsCurrentItemChanges() {
+        PagedWheelAdapter adapter = adapter(8, new SyncExecutor());
+        adapter.getItemText(55);
+        assertEquals(2, source.starts.size());
+        assertEquals(60, (int) source.starts.get(1));
+
+        adapter.onChanged(null, 55, 54);
+        adapter.getItemText(54);
+        assertEquals(40, (int) source.starts.get(2));
+
+        // binds in layout order don't turn the direction back
+        idle();
+        source.starts.clear();
+        for (int i = 40; i < 50; i++) {
+            adapter.getItemText(i);
+        }
+        assertEquals(1, source.starts.size());
+        assertEquals(30, (int) source.starts.get(0));
+    }
+
+    @Test
+    public void prefetch_followsCyclicWrap() {
+        PagedWheelAdapter adapter = adapter(8, new SyncExecutor());
+        WheelView wheel = new WheelView(context());
+        wheel.setCyclic(true);
+        wheel.setViewAdapter(adapter);
+        wheel.setCurrentItem(COUNT - 1);
+        adapter.getItemText(COUNT - 1);
+        assertEquals(80, (int) source.starts.get(1));
+
+        wheel.setCurrentItem(0);
+        adapter.getItemText(0);
+        assertEquals(10, (int) source.starts.get(3));
+    }
+
+    @Test
+    public void prefetch_followsLongJumpOnNonCyclicWheel() {
+        PagedWheelAdapter adapter = adapter(8, new SyncExecutor());
+        WheelView wheel = new WheelView(context());
+        wheel.setViewAdapter(adapter);
+        wheel.setCurrentItem(10);
+        wheel.setCurrentItem(80);
+        adapter.getItemText(80);
+        assertEquals(90, (int) source.starts.get(1));
+    }
+
+    @Test
+    public void failedPage_isRetried() {
+        PagedWheelAdapter adapter = adapter(8, new SyncExecutor());
+        adapter.setPrefetchPages(0);
+        source.failures = 2;
+        adapter.getItemText(0);
+        idle();
+        assertFalse(adapter.isItemLoaded(0));
+
+        shadowOf(Looper.getMainLooper()).idleFor(1, TimeUnit.SECONDS);
+        assertFalse(adapter.isItemLoaded(0));
+        shadowOf(Looper.getMainLooper()).idleFor(2, TimeUnit.SECONDS);
+        assertTrue(adapter.isItemLoaded(0));
+        assertEquals(3, source.starts.size());
+    }
+
+    @Test
+    public void failedPage_isRequestedAgainWhenBoundAfterLastRetry() {
+        PagedWheelAdapter adapter = adapter(8, new SyncExecutor());
+        adapter.setPrefetchPages(0);
+        source.failures = PagedWheelAdapter.MAX_RETRIES + 1;
+        adapter.getItemText(0);
+        shadowOf(Looper.getMainLooper()).idleFor(1, TimeUnit.MINUTES);
+        assertEquals(PagedWheelAdapter.MAX_RETRIES + 1, source.starts.size());
+        assertFalse(adapter.isItemLoaded(0));
+
+        adapter.getItemText(0);
+        idle();
+        assertTrue(adapter.isItemLoaded(0));
+    }
+
+    private PagedWheelAdapter adapter(int maxPages, Executor executor) {
+        PagedWheelAdapter adapter = new PagedWheelAdapter(RuntimeEnvironment.getApplication(), source, PAGE_SIZE, maxPages, executor);
+        if (executor instanceof QueueExecutor) {
+            ((QueueExecutor) executor).runAll();
+        }
+        idle();
+        adapter.registerDataSetObserver(observer);
+        return adapter;
+    }
+
+    private static Context context() {
+        return new ContextThemeWrapper(RuntimeEnvironment.getApplication(), android.R.style.Theme_Material_Light);
+    }
+
+    private static void idle() {
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    private static class Source implements WheelPagedDataSource {
+        final List<Integer> starts = new ArrayList<>();
+        String prefix = "item ";
+        int failures;
+        int countLoads;
+
+        @Override
+        public int getCount() {
+            countLoads++;
+            return COUNT;
+        }
+
+        @Override
+        public CharSequence[] loadPage(int start, int count) {
+            starts.add(start);
+            if (failures > 0) {
+                failures--;
+                return null;
+            }
+            CharSequence[] labels = new CharSequence[count];
+            for (int i = 0; i < count; i++) {
+                labels[i] = prefix + (start + i);
+            }
+            return labels;
+        }
+    }
+
+    private static class Observer extends WheelDataSetObserver {
+        final List<int[]> changes = new ArrayList<>();
+
+        @Override
+        public void onChanged() {
+            changes.add(new int[]{-1, -1});
+        }
+
+        @Override
+        public void onItemRangeChanged(int start, int count) {
+            changes.add(new int[]{start, count});
+        }
+    }
+
+    private static class SyncExecutor implements Executor {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    }
+
+    private static class QueueExecutor implements Executor {
+        private final List<Runnable> commands = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            commands.add(command);
+        }
+
+        void runAll() {
+            while (!commands.isEmpty()) {
+                commands.remove(0).run();
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ class DateWheelDialogFragment : AppCompatDialogFragment() {
             monthDes = "月",
             dayDes = "日"
         )
+        dateWheelLayout.prewarm()
         builder.setPositiveButton(android.R.string.ok) { _, _ ->
             Log.e("Kilnn", "Select:" + dateWheelLayout.getDate().contentToString())
         }